@@ -0,0 +1,149 @@
+package io.cealus.invest_track.analytics;
+
+/**
+ * Primitive numeric kernels for return calculations. Inputs are parallel arrays plus a length,
+ * so callers can reuse scratch buffers; none of these methods allocate.
+ */
+public final class ReturnKernels {
+
+    private static final double DAYS_PER_YEAR = 365.0;
+    private static final double TOLERANCE = 1e-10;
+    private static final int MAX_NEWTON_ITERATIONS = 50;
+    private static final int MAX_BISECTION_ITERATIONS = 200;
+    private static final double MIN_RATE = -0.999999;
+    private static final double MAX_RATE = 1e6;
+
+    private ReturnKernels() {}
+
+    /**
+     * Annualized internal rate of return for irregular cash flows.
+     * {@code days} are epoch days, {@code flows} are signed amounts (outflows negative), and the
+     * last flow is the terminal value. Returns NaN when all flows fall on one day (nothing to
+     * annualize) or when they do not change sign, since no rate exists then; outflows followed by
+     * a zero terminal value are a total loss, -1.
+     */
+    public static double xirr(int[] days, double[] flows, int n) {
+        if (n < 2) {
+            return Double.NaN;
+        }
+        int origin = days[0];
+        int last = days[0];
+        for (int i = 1; i < n; i++) {
+            origin = Math.min(origin, days[i]);
+            last = Math.max(last, days[i]);
+        }
+        if (origin == last) {
+            // Every discount factor is 1, so any rate would give the same NPV
+            return Double.NaN;
+        }
+        if (!hasSignChange(flows, n)) {
+            return flows[n - 1] == 0 && hasOutflow(flows, n - 1) ? -1.0 : Double.NaN;
+        }
+
+        // Newton-Raphson from a 10% guess; falls back to bisection if it leaves the valid range
+        double rate = 0.1;
+        for (int iteration = 0; iteration < MAX_NEWTON_ITERATIONS; iteration++) {
+            double npv = 0;
+            double derivative = 0;
+            double base = 1 + rate;
+            for (int i = 0; i < n; i++) {
+                double years = (days[i] - origin) / DAYS_PER_YEAR;
+                double discount = Math.pow(base, -years);
+                npv += flows[i] * discount;
+                derivative -= years * flows[i] * discount / base;
+            }
+            if (Math.abs(npv) < TOLERANCE) {
+                return rate;
+            }
+            if (derivative == 0 || !Double.isFinite(derivative)) {
+                break;
+            }
+            double next = rate - npv / derivative;
+            if (!Double.isFinite(next) || next <= MIN_RATE || next > MAX_RATE) {
+                break;
+            }
+            if (Math.abs(next - rate) < TOLERANCE) {
+                return next;
+            }
+            rate = next;
+        }
+        return bisect(days, flows, n, origin);
+    }
+
+    private static double bisect(int[] days, double[] flows, int n, int origin) {
+        double low = MIN_RATE;
+        double high = MAX_RATE;
+        double npvLow = npv(days, flows, n, origin, low);
+        double npvHigh = npv(days, flows, n, origin, high);
+        if (Double.isNaN(npvLow) || Double.isNaN(npvHigh) || Math.signum(npvLow) == Math.signum(npvHigh)) {
+            return Double.NaN;
+        }
+        for (int iteration = 0; iteration < MAX_BISECTION_ITERATIONS; iteration++) {
+            double mid = (low + high) / 2;
+            double npvMid = npv(days, flows, n, origin, mid);
+            if (Math.abs(npvMid) < TOLERANCE || (high - low) / 2 < TOLERANCE) {
+                return mid;
+            }
+            if (Math.signum(npvMid) == Math.signum(npvLow)) {
+                low = mid;
+                npvLow = npvMid;
+            } else {
+                high = mid;
+            }
+        }
+        return (low + high) / 2;
+    }
+
+    private static double npv(int[] days, double[] flows, int n, int origin, double rate) {
+        double base = 1 + rate;
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            total += flows[i] * Math.pow(base, -(days[i] - origin) / DAYS_PER_YEAR);
+        }
+        return total;
+    }
+
+    private static boolean hasSignChange(double[] flows, int n) {
+        return hasOutflow(flows, n) && hasInflow(flows, n);
+    }
+
+    private static boolean hasOutflow(double[] flows, int n) {
+        for (int i = 0; i < n; i++) {
+            if (flows[i] < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasInflow(double[] flows, int n) {
+        for (int i = 0; i < n; i++) {
+            if (flows[i] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Time-weighted return over {@code n} external cash flows, chaining sub-period returns.
+     * {@code valueBefore[i]} is the portfolio value just before flow i, {@code valueAfter[i]} just after it;
+     * {@code endValue} is the value at the end of the last sub-period.
+     * Sub-periods that start from a zero value carry no return and are skipped.
+     */
+    public static double timeWeightedReturn(double[] valueBefore, double[] valueAfter, int n, double endValue) {
+        if (n == 0) {
+            return Double.NaN;
+        }
+        double growth = 1;
+        for (int i = 1; i < n; i++) {
+            if (valueAfter[i - 1] > 0) {
+                growth *= valueBefore[i] / valueAfter[i - 1];
+            }
+        }
+        if (valueAfter[n - 1] > 0) {
+            growth *= endValue / valueAfter[n - 1];
+        }
+        return growth - 1;
+    }
+}
@@ -0,0 +1,131 @@
+package io.cealus.invest_track.analytics;
+
+import io.cealus.invest_track.entity.Investment;
+import io.cealus.invest_track.portfolio.PortfolioColumns;
+
+import java.util.Arrays;
+
+/**
+ * Turns a slice of {@link PortfolioColumns} into cash flows and valuations and runs the
+ * {@link ReturnKernels} over them. One instance is a reusable scratch area for a single thread.
+ *
+ * There is no market price feed, so a symbol is marked at the most recent purchase price recorded
+ * for it on or before the valuation day. Rows without quantity, price or symbol are carried at cost.
+ */
+final class ReturnSeries {
+
+    static final int ALL = 0;
+    static final int BY_SYMBOL = 1;
+    static final int BY_CATEGORY = 2;
+
+    private static final double AMOUNT_UNIT = Math.pow(10, Investment.AMOUNT_SCALE);
+    private static final double QUANTITY_UNIT = Math.pow(10, Investment.UNIT_SCALE);
+
+    private final PortfolioColumns columns;
+    private final int end;
+    private final int asOfDay;
+    private final int[] days;
+    private final double[] flows;
+    private final double[] valueBefore;
+    private final double[] valueAfter;
+    private final double[] heldQuantity;
+    private final double[] lastPrice;
+
+    ReturnSeries(PortfolioColumns columns, int asOfDay) {
+        this.columns = columns;
+        this.asOfDay = asOfDay;
+        this.end = columns.upperBound(asOfDay);
+        this.days = new int[end + 1];
+        this.flows = new double[end + 1];
+        this.valueBefore = new double[end];
+        this.valueAfter = new double[end];
+        this.heldQuantity = new double[columns.symbolCount()];
+        this.lastPrice = new double[columns.symbolCount()];
+    }
+
+    /** Returns for the rows selected by {@code kind}/{@code id}, or null if the slice has no rows. */
+    Returns compute(int kind, int id) {
+        Arrays.fill(heldQuantity, 0);
+        Arrays.fill(lastPrice, 0);
+        int flowCount = 0;
+        double marketValue = 0;
+        double costOnly = 0;
+        double invested = 0;
+
+        int i = 0;
+        while (i < end) {
+            int day = columns.epochDay(i);
+            int dayEnd = i;
+            while (dayEnd < end && columns.epochDay(dayEnd) == day) {
+                dayEnd++;
+            }
+
+            // Re-mark held positions at the prices recorded today before today's flows enter
+            for (int row = i; row < dayEnd; row++) {
+                if (matches(row, kind, id) && isPriced(row)) {
+                    int symbol = columns.symbolId(row);
+                    double price = columns.price(row) / QUANTITY_UNIT;
+                    marketValue += heldQuantity[symbol] * (price - lastPrice[symbol]);
+                    lastPrice[symbol] = price;
+                }
+            }
+            double before = marketValue + costOnly;
+
+            double dayFlow = 0;
+            boolean anyFlow = false;
+            for (int row = i; row < dayEnd; row++) {
+                if (!matches(row, kind, id)) {
+                    continue;
+                }
+                anyFlow = true;
+                double amount = columns.amount(row) / AMOUNT_UNIT;
+                dayFlow += amount;
+                if (isPriced(row)) {
+                    int symbol = columns.symbolId(row);
+                    double quantity = columns.quantity(row) / QUANTITY_UNIT;
+                    heldQuantity[symbol] += quantity;
+                    marketValue += quantity * lastPrice[symbol];
+                } else {
+                    costOnly += amount;
+                }
+            }
+
+            if (anyFlow) {
+                days[flowCount] = day;
+                flows[flowCount] = -dayFlow;
+                valueBefore[flowCount] = before;
+                valueAfter[flowCount] = marketValue + costOnly;
+                flowCount++;
+                invested += dayFlow;
+            }
+            i = dayEnd;
+        }
+
+        if (flowCount == 0) {
+            return null;
+        }
+        double endValue = marketValue + costOnly;
+        double twr = ReturnKernels.timeWeightedReturn(valueBefore, valueAfter, flowCount, endValue);
+        days[flowCount] = asOfDay;
+        flows[flowCount] = endValue;
+        double xirr = ReturnKernels.xirr(days, flows, flowCount + 1);
+        return new Returns(xirr, twr, invested, endValue);
+    }
+
+    private boolean matches(int row, int kind, int id) {
+        switch (kind) {
+            case BY_SYMBOL:
+                return columns.symbolId(row) == id;
+            case BY_CATEGORY:
+                return columns.categoryId(row) == id;
+            default:
+                return true;
+        }
+    }
+
+    private boolean isPriced(int row) {
+        return columns.symbolId(row) != PortfolioColumns.NO_ID
+                && columns.quantity(row) != PortfolioColumns.NO_VALUE
+                && columns.price(row) != PortfolioColumns.NO_VALUE;
+    }
+}
@@ -0,0 +1,28 @@
+package io.cealus.invest_track.analytics;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Return figures for one slice of a portfolio (whole portfolio, one symbol or one category).
+ * Rates are fractions, e.g. 0.0725 for 7.25%; null when the rate is undefined for the flows.
+ */
+public class Returns {
+
+    private final Double xirr;
+    private final Double timeWeightedReturn;
+    private final BigDecimal invested;
+    private final BigDecimal marketValue;
+
+    public Returns(double xirr, double timeWeightedReturn, double invested, double marketValue) {
+        this.xirr = Double.isFinite(xirr) ? xirr : null;
+        this.timeWeightedReturn = Double.isFinite(timeWeightedReturn) ? timeWeightedReturn : null;
+        this.invested = BigDecimal.valueOf(invested).setScale(4, RoundingMode.HALF_UP);
+        this.marketValue = BigDecimal.valueOf(marketValue).setScale(4, RoundingMode.HALF_UP);
+    }
+
+    public Double getXirr() { return xirr; }
+    public Double getTimeWeightedReturn() { return timeWeightedReturn; }
+    public BigDecimal getInvested() { return invested; }
+    public BigDecimal getMarketValue() { return marketValue; }
+}
@@ -0,0 +1,229 @@
+package io.cealus.invest_track.analytics;
+
+import io.cealus.invest_track.entity.User;
+import io.cealus.invest_track.portfolio.PortfolioColumns;
+import io.cealus.invest_track.portfolio.PortfolioStore;
+import io.cealus.invest_track.repository.UserRepository;
+import io.cealus.invest_track.service.InvestmentsChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * XIRR and time-weighted returns per portfolio, symbol and category.
+ *
+ * Work is split on a dedicated fork/join pool: across users for the nightly recomputation and
+ * across symbols and categories within a portfolio. Reports for the current day are cached per
+ * user in a bounded LRU map, tagged with the portfolio store's version for that user, and only
+ * served while that version is unchanged. The nightly job refreshes the cached users only.
+ */
+@Service
+public class ReturnsAnalyticsService {
+
+    // Symbols/categories per leaf task; each leaf allocates one ReturnSeries scratch area
+    private static final int SLICES_PER_TASK = 8;
+
+    @Autowired
+    private PortfolioStore portfolioStore;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ForkJoinPool pool;
+    private final int maxCachedReports;
+
+    // Access-ordered and guarded by itself; the eldest entry goes once the limit is reached
+    private final LinkedHashMap<Long, CachedReport> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, CachedReport> eldest) {
+            return size() > maxCachedReports;
+        }
+    };
+
+    public ReturnsAnalyticsService(@Value("${analytics.returns.parallelism:0}") int parallelism,
+                                   @Value("${analytics.returns.max-cached-reports:10000}") int maxCachedReports) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.maxCachedReports = maxCachedReports;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    public ReturnsReport getReturns(User user, LocalDate asOf) {
+        LocalDate today = LocalDate.now();
+        if (asOf != null && !asOf.equals(today)) {
+            return pool.invoke(new PortfolioTask(portfolioStore.get(user), asOf));
+        }
+        // Read the version before loading, so a write racing with the load makes the entry stale
+        long version = portfolioStore.version(user.getId());
+        CachedReport cached = cached(user.getId());
+        if (cached != null && cached.isFor(version, today)) {
+            return cached.report;
+        }
+        ReturnsReport report = pool.invoke(new PortfolioTask(portfolioStore.get(user), today));
+        cache(user.getId(), new CachedReport(version, report));
+        return report;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInvestmentsChanged(InvestmentsChangedEvent event) {
+        // Stale entries would never be served again, but they still hold memory
+        synchronized (cache) {
+            cache.remove(event.getUserId());
+        }
+    }
+
+    /**
+     * Moves the cached reports to the new day. Only users with a cached report are refreshed; the
+     * rest are computed on their next request. Snapshots the store does not already hold are loaded
+     * without caching, so the job does not evict the users who are active right now.
+     */
+    @Scheduled(cron = "${analytics.returns.recompute-cron:0 30 2 * * *}")
+    public void recomputeAll() {
+        LocalDate today = LocalDate.now();
+        List<Long> userIds;
+        synchronized (cache) {
+            userIds = new ArrayList<>(cache.keySet());
+        }
+        List<UserTask> tasks = new ArrayList<>();
+        for (User user : userRepository.findAllById(userIds)) {
+            tasks.add(new UserTask(user, today));
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                ForkJoinTask.invokeAll(tasks);
+            }
+        });
+    }
+
+    private CachedReport cached(Long userId) {
+        synchronized (cache) {
+            return cache.get(userId);
+        }
+    }
+
+    private void cache(Long userId, CachedReport report) {
+        synchronized (cache) {
+            cache.put(userId, report);
+        }
+    }
+
+    private static class CachedReport {
+        private final long version;
+        private final ReturnsReport report;
+
+        CachedReport(long version, ReturnsReport report) {
+            this.version = version;
+            this.report = report;
+        }
+
+        boolean isFor(long currentVersion, LocalDate asOf) {
+            return version == currentVersion && report.getAsOf().equals(asOf);
+        }
+    }
+
+    private class UserTask extends RecursiveAction {
+        private final User user;
+        private final LocalDate asOf;
+
+        UserTask(User user, LocalDate asOf) {
+            this.user = user;
+            this.asOf = asOf;
+        }
+
+        @Override
+        protected void compute() {
+            long version = portfolioStore.version(user.getId());
+            PortfolioColumns columns = portfolioStore.getWithoutCaching(user);
+            cache(user.getId(), new CachedReport(version, new PortfolioTask(columns, asOf).invoke()));
+        }
+    }
+
+    /** Computes one user's report, forking over the portfolio, symbol and category slices. */
+    private static class PortfolioTask extends RecursiveTask<ReturnsReport> {
+        private final PortfolioColumns columns;
+        private final LocalDate asOf;
+
+        PortfolioTask(PortfolioColumns columns, LocalDate asOf) {
+            this.columns = columns;
+            this.asOf = asOf;
+        }
+
+        @Override
+        protected ReturnsReport compute() {
+            int asOfDay = Math.toIntExact(asOf.toEpochDay());
+            int symbols = columns.symbolCount();
+            Returns[] results = new Returns[1 + symbols + columns.categoryCount()];
+            new SliceTask(columns, asOfDay, results, 0, results.length).invoke();
+
+            Map<String, Returns> bySymbol = new HashMap<>();
+            for (int id = 0; id < symbols; id++) {
+                if (results[1 + id] != null) {
+                    bySymbol.put(columns.symbol(id), results[1 + id]);
+                }
+            }
+            Map<String, Returns> byCategory = new HashMap<>();
+            for (int id = 0; id < columns.categoryCount(); id++) {
+                if (results[1 + symbols + id] != null) {
+                    byCategory.put(columns.category(id), results[1 + symbols + id]);
+                }
+            }
+            return new ReturnsReport(asOf, results[0], bySymbol, byCategory);
+        }
+    }
+
+    /** Slice 0 is the whole portfolio, then one slice per symbol id, then one per category id. */
+    private static class SliceTask extends RecursiveAction {
+        private final PortfolioColumns columns;
+        private final int asOfDay;
+        private final Returns[] results;
+        private final int from;
+        private final int to;
+
+        SliceTask(PortfolioColumns columns, int asOfDay, Returns[] results, int from, int to) {
+            this.columns = columns;
+            this.asOfDay = asOfDay;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SLICES_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new SliceTask(columns, asOfDay, results, from, mid),
+                        new SliceTask(columns, asOfDay, results, mid, to));
+                return;
+            }
+            ReturnSeries series = new ReturnSeries(columns, asOfDay);
+            int symbols = columns.symbolCount();
+            for (int slice = from; slice < to; slice++) {
+                if (slice == 0) {
+                    results[slice] = series.compute(ReturnSeries.ALL, 0);
+                } else if (slice <= symbols) {
+                    results[slice] = series.compute(ReturnSeries.BY_SYMBOL, slice - 1);
+                } else {
+                    results[slice] = series.compute(ReturnSeries.BY_CATEGORY, slice - 1 - symbols);
+                }
+            }
+        }
+    }
+}
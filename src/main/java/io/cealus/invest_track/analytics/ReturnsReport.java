@@ -0,0 +1,27 @@
+package io.cealus.invest_track.analytics;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+public class ReturnsReport {
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private final LocalDate asOf;
+    private final Returns portfolio;
+    private final Map<String, Returns> bySymbol;
+    private final Map<String, Returns> byCategory;
+
+    public ReturnsReport(LocalDate asOf, Returns portfolio, Map<String, Returns> bySymbol, Map<String, Returns> byCategory) {
+        this.asOf = asOf;
+        this.portfolio = portfolio;
+        this.bySymbol = bySymbol;
+        this.byCategory = byCategory;
+    }
+
+    public LocalDate getAsOf() { return asOf; }
+    public Returns getPortfolio() { return portfolio; }
+    public Map<String, Returns> getBySymbol() { return bySymbol; }
+    public Map<String, Returns> getByCategory() { return byCategory; }
+}
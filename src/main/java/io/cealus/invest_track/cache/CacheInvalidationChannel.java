@@ -0,0 +1,232 @@
+package io.cealus.invest_track.cache;
+
+import io.cealus.invest_track.entity.Investment;
+import io.cealus.invest_track.entity.User;
+import io.cealus.invest_track.service.InvestmentsChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Optional cross-node cache invalidation over PostgreSQL LISTEN/NOTIFY.
+ *
+ * Every node keeps its own second-level cache and derived per-user state. This channel sends
+ * committed entity changes, explicit evictions and {@link InvestmentsChangedEvent}s to the other
+ * nodes, which apply them locally. A single thread owns one dedicated connection for both sending
+ * and receiving, so notifications are sent in autocommit and never ride on a caller's transaction.
+ */
+@Component
+@ConditionalOnProperty(name = "investment.cache.invalidation-channel.enabled", havingValue = "true")
+public class CacheInvalidationChannel {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationChannel.class);
+    private static final String SEPARATOR = "|";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private SecondLevelCache secondLevelCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${investment.cache.invalidation-channel.name:investtrack_cache}")
+    private String channelName;
+
+    @Value("${investment.cache.invalidation-channel.poll-ms:50}")
+    private int pollMs;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final BlockingQueue<String> outgoing = new LinkedBlockingQueue<>();
+    private Thread worker;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        EntityChangeListener listener = new EntityChangeListener();
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+
+        running = true;
+        worker = new Thread(this::run, "cache-invalidation-channel");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(1000);
+    }
+
+    void sendEntityEviction(String region, Object id) {
+        send("entity", region, String.valueOf(id));
+    }
+
+    void sendQueryEviction(String region) {
+        send("queries", region, "");
+    }
+
+    void sendRegionEviction(String region) {
+        send("region", region, "");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInvestmentsChanged(InvestmentsChangedEvent event) {
+        if (!event.isRemote()) {
+            send("changed", "", String.valueOf(event.getUserId()));
+        }
+    }
+
+    private void send(String type, String region, String argument) {
+        outgoing.add(nodeId + SEPARATOR + type + SEPARATOR + region + SEPARATOR + argument);
+    }
+
+    private void run() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channelName);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (PreparedStatement notify = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+                    while (running) {
+                        String message;
+                        while ((message = outgoing.poll()) != null) {
+                            notify.setString(1, channelName);
+                            notify.setString(2, message);
+                            notify.execute();
+                        }
+                        PGNotification[] notifications = pgConnection.getNotifications(pollMs);
+                        if (notifications != null) {
+                            for (PGNotification notification : notifications) {
+                                receive(notification.getParameter());
+                            }
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation channel lost its connection, reconnecting", e);
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void receive(String message) {
+        String[] parts = message.split("\\|", -1);
+        if (parts.length != 4 || nodeId.equals(parts[0])) {
+            return;
+        }
+        String region = parts[2];
+        switch (parts[1]) {
+            case "entity":
+                secondLevelCache.evictEntityLocally(region, Long.valueOf(parts[3]));
+                break;
+            case "region":
+                secondLevelCache.evictRegionLocally(region);
+                break;
+            case "queries":
+                secondLevelCache.evictQueriesLocally(region);
+                break;
+            case "changed":
+                secondLevelCache.evictQueriesLocally(SecondLevelCache.INVESTMENT_QUERIES_REGION);
+                eventPublisher.publishEvent(new InvestmentsChangedEvent(Long.valueOf(parts[3]), true));
+                break;
+            default:
+                log.debug("Ignoring unknown cache invalidation message {}", message);
+        }
+    }
+
+    /** Forwards committed changes to cached entities; inserts only affect cached query results. */
+    private class EntityChangeListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+            PostCommitDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            sendQueryEviction(queryRegionOf(event.getEntity()));
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            sendEntityEviction(regionOf(event.getEntity()), event.getId());
+            sendQueryEviction(queryRegionOf(event.getEntity()));
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            sendEntityEviction(regionOf(event.getEntity()), event.getId());
+            sendQueryEviction(queryRegionOf(event.getEntity()));
+        }
+
+        @Override
+        public void onPostInsertCommitFailed(PostInsertEvent event) {
+        }
+
+        @Override
+        public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        }
+
+        @Override
+        public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            Class<?> type = persister.getMappedClass();
+            return type == Investment.class || type == User.class;
+        }
+
+        private String regionOf(Object entity) {
+            return entity instanceof User ? SecondLevelCache.USERS_REGION : SecondLevelCache.INVESTMENTS_REGION;
+        }
+
+        private String queryRegionOf(Object entity) {
+            return entity instanceof User ? SecondLevelCache.USER_QUERIES_REGION : SecondLevelCache.INVESTMENT_QUERIES_REGION;
+        }
+    }
+}
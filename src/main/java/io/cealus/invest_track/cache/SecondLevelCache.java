@@ -0,0 +1,135 @@
+package io.cealus.invest_track.cache;
+
+import io.cealus.invest_track.entity.Investment;
+import io.cealus.invest_track.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Explicit eviction for writes that bypass Hibernate (plain JDBC) and cache statistics for tuning.
+ * Evictions are applied locally and, when the invalidation channel is enabled, sent to other nodes.
+ */
+@Component
+public class SecondLevelCache {
+
+    public static final String INVESTMENTS_REGION = "investments";
+    public static final String USERS_REGION = "users";
+    public static final String INVESTMENT_QUERIES_REGION = "investment-queries";
+    public static final String USER_QUERIES_REGION = "user-queries";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Looked up lazily: the channel itself depends on this component
+    @Autowired
+    private ObjectProvider<CacheInvalidationChannel> invalidationChannel;
+
+    public void evictInvestments(Collection<Long> ids) {
+        for (Long id : ids) {
+            cache().evictEntityData(Investment.class, id);
+            invalidationChannel.ifAvailable(channel -> channel.sendEntityEviction(INVESTMENTS_REGION, id));
+        }
+        evictQueries(INVESTMENT_QUERIES_REGION);
+    }
+
+    /** For bulk deletes; Hibernate already cleared the local region, other nodes still need to. */
+    public void evictAllInvestments() {
+        cache().evictEntityData(Investment.class);
+        invalidationChannel.ifAvailable(channel -> channel.sendRegionEviction(INVESTMENTS_REGION));
+        evictQueries(INVESTMENT_QUERIES_REGION);
+    }
+
+    /**
+     * {@link #evictAllInvestments()} once the current transaction commits, or right away without
+     * one. Evicting earlier would let another node reload rows the transaction is deleting.
+     */
+    public void evictAllInvestmentsAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictAllInvestments();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictAllInvestments();
+            }
+        });
+    }
+
+    public void evictQueries(String region) {
+        cache().evictQueryRegion(region);
+        invalidationChannel.ifAvailable(channel -> channel.sendQueryEviction(region));
+    }
+
+    // --- Applied for messages from other nodes; never forwarded again ---
+
+    void evictEntityLocally(String region, Long id) {
+        if (INVESTMENTS_REGION.equals(region)) {
+            cache().evictEntityData(Investment.class, id);
+        } else if (USERS_REGION.equals(region)) {
+            cache().evictEntityData(User.class, id);
+        }
+    }
+
+    void evictRegionLocally(String region) {
+        cache().evictRegion(region);
+    }
+
+    void evictQueriesLocally(String region) {
+        cache().evictQueryRegion(region);
+    }
+
+    public Map<String, Object> getStatistics() {
+        Statistics statistics = sessionFactory().getStatistics();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", statistics.isStatisticsEnabled());
+        result.put("secondLevelCacheHitCount", statistics.getSecondLevelCacheHitCount());
+        result.put("secondLevelCacheMissCount", statistics.getSecondLevelCacheMissCount());
+        result.put("secondLevelCachePutCount", statistics.getSecondLevelCachePutCount());
+        result.put("queryCacheHitCount", statistics.getQueryCacheHitCount());
+        result.put("queryCacheMissCount", statistics.getQueryCacheMissCount());
+        result.put("queryCachePutCount", statistics.getQueryCachePutCount());
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String region : new String[] {INVESTMENTS_REGION, USERS_REGION}) {
+            regions.put(region, regionStatistics(statistics.getDomainDataRegionStatistics(region)));
+        }
+        for (String region : new String[] {INVESTMENT_QUERIES_REGION, USER_QUERIES_REGION}) {
+            regions.put(region, regionStatistics(statistics.getQueryRegionStatistics(region)));
+        }
+        result.put("regions", regions);
+        return result;
+    }
+
+    private static Map<String, Object> regionStatistics(CacheRegionStatistics region) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (region == null) {
+            return result;
+        }
+        result.put("hitCount", region.getHitCount());
+        result.put("missCount", region.getMissCount());
+        result.put("putCount", region.getPutCount());
+        result.put("elementCountInMemory", region.getElementCountInMemory());
+        return result;
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    private Cache cache() {
+        return sessionFactory().getCache();
+    }
+}
@@ -0,0 +1,25 @@
+package io.cealus.invest_track.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Second-level and query cache statistics as the {@code hibernatecache} actuator endpoint.
+ * The numbers cover every user, so they are an operator view and not part of the public API.
+ */
+@Component
+@Endpoint(id = "hibernatecache")
+public class SecondLevelCacheEndpoint {
+
+    @Autowired
+    private SecondLevelCache secondLevelCache;
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        return secondLevelCache.getStatistics();
+    }
+}
@@ -0,0 +1,35 @@
+package io.cealus.invest_track.controller;
+
+import io.cealus.invest_track.analytics.ReturnsAnalyticsService;
+import io.cealus.invest_track.analytics.ReturnsReport;
+import io.cealus.invest_track.entity.User;
+import io.cealus.invest_track.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/analytics")
+@CrossOrigin(origins = "http://localhost:3000")
+public class AnalyticsController {
+
+    @Autowired
+    private ReturnsAnalyticsService returnsAnalyticsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User getCurrentUser(Principal principal) {
+        return userRepository.findByUsername(principal.getName())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + principal.getName()));
+    }
+
+    @GetMapping("/returns")
+    public ResponseEntity<ReturnsReport> getReturns(@RequestParam(required = false) LocalDate asOf, Principal principal) {
+        return ResponseEntity.ok(returnsAnalyticsService.getReturns(getCurrentUser(principal), asOf));
+    }
+}
@@ -1,6 +1,9 @@
 package io.cealus.invest_track.controller;
 
+import io.cealus.invest_track.dto.BatchOperationDTO;
+import io.cealus.invest_track.dto.BatchResultDTO;
 import io.cealus.invest_track.dto.InvestmentDTO;
+import io.cealus.invest_track.encoding.InvestmentMediaTypes;
 import io.cealus.invest_track.entity.User;
 import io.cealus.invest_track.repository.UserRepository;
 import io.cealus.invest_track.service.InvestmentService;
@@ -34,9 +37,12 @@ public class InvestmentController {
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + principal.getName()));
     }
 
-    @GetMapping
-    public ResponseEntity<List<InvestmentDTO>> getAllInvestments(Principal principal) {
-        List<InvestmentDTO> investments = investmentService.getAllInvestments(getCurrentUser(principal));
+    // List endpoints negotiate JSON, Smile, CBOR or the columnar format from the Accept header
+    @GetMapping(produces = {InvestmentMediaTypes.JSON, InvestmentMediaTypes.SMILE, InvestmentMediaTypes.CBOR, InvestmentMediaTypes.COLUMNAR_JSON})
+    public ResponseEntity<List<InvestmentDTO>> getAllInvestments(
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            Principal principal) {
+        List<InvestmentDTO> investments = investmentService.getAllInvestments(getCurrentUser(principal), includeArchived);
         return ResponseEntity.ok(investments);
     }
 
@@ -62,8 +68,8 @@ public class InvestmentController {
         try {
             // The service method must verify the investment belongs to the current user
             Optional<InvestmentDTO> updatedInvestment = investmentService.updateInvestment(id, investmentDTO);
-            return updatedInvestment.map(ResponseEntity::ok)
-                                  .orElse(ResponseEntity.notFound().build());
+            return updatedInvestment.<ResponseEntity<?>>map(ResponseEntity::ok)
+                                  .orElseGet(() -> notFoundOrArchived(id, getCurrentUser(principal)));
         } catch (IllegalArgumentException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -93,10 +99,32 @@ public class InvestmentController {
         }
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<?> applyBatch(@RequestBody List<BatchOperationDTO> operations, Principal principal) {
+        if (operations == null || operations.isEmpty()) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", "No operations to apply."));
+        }
+        try {
+            List<BatchResultDTO> results = investmentService.applyBatch(operations, getCurrentUser(principal));
+            return ResponseEntity.ok(Collections.singletonMap("results", results));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
+        }
+    }
+
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteInvestment(@PathVariable Long id, Principal principal) {
-        boolean deleted = investmentService.deleteInvestment(id, getCurrentUser(principal));
-        return deleted ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    public ResponseEntity<?> deleteInvestment(@PathVariable Long id, Principal principal) {
+        User user = getCurrentUser(principal);
+        boolean deleted = investmentService.deleteInvestment(id, user);
+        return deleted ? ResponseEntity.noContent().build() : notFoundOrArchived(id, user);
+    }
+
+    // Archived rows are still listed with includeArchived, so say why they cannot be changed
+    private ResponseEntity<?> notFoundOrArchived(Long id, User user) {
+        if (investmentService.isArchived(id, user)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Collections.singletonMap("error", InvestmentService.ARCHIVED_ERROR));
+        }
+        return ResponseEntity.notFound().build();
     }
 
     @DeleteMapping
@@ -113,21 +141,41 @@ public class InvestmentController {
         stats.put("averageAmount", investmentService.getAverageAmount(user));
         stats.put("totalCount", investmentService.getTotalCount(user));
         stats.put("latestDate", investmentService.getLatestInvestmentDate(user).orElse(null));
+        stats.put("baseCurrency", user.getBaseCurrency());
         return ResponseEntity.ok(stats);
     }
 
-    @GetMapping("/search")
-    public ResponseEntity<List<InvestmentDTO>> searchInvestments(@RequestParam String name, Principal principal) {
-        List<InvestmentDTO> investments = investmentService.searchInvestmentsByName(getCurrentUser(principal), name);
+    @GetMapping("/breakdown")
+    public ResponseEntity<Map<String, Object>> getPortfolioBreakdown(
+            @RequestParam(required = false) LocalDate startDate,
+            @RequestParam(required = false) LocalDate endDate,
+            Principal principal) {
+        return ResponseEntity.ok(investmentService.getPortfolioBreakdown(getCurrentUser(principal), startDate, endDate));
+    }
+
+    @GetMapping(value = "/export", produces = {InvestmentMediaTypes.JSON, InvestmentMediaTypes.SMILE, InvestmentMediaTypes.CBOR, InvestmentMediaTypes.COLUMNAR_JSON})
+    public ResponseEntity<List<InvestmentDTO>> exportInvestments(
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            Principal principal) {
+        return ResponseEntity.ok(investmentService.getInvestmentsForExport(getCurrentUser(principal), includeArchived));
+    }
+
+    @GetMapping(value = "/search", produces = {InvestmentMediaTypes.JSON, InvestmentMediaTypes.SMILE, InvestmentMediaTypes.CBOR, InvestmentMediaTypes.COLUMNAR_JSON})
+    public ResponseEntity<List<InvestmentDTO>> searchInvestments(
+            @RequestParam String name,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            Principal principal) {
+        List<InvestmentDTO> investments = investmentService.searchInvestmentsByName(getCurrentUser(principal), name, includeArchived);
         return ResponseEntity.ok(investments);
     }
 
-    @GetMapping("/date-range")
+    @GetMapping(value = "/date-range", produces = {InvestmentMediaTypes.JSON, InvestmentMediaTypes.SMILE, InvestmentMediaTypes.CBOR, InvestmentMediaTypes.COLUMNAR_JSON})
     public ResponseEntity<List<InvestmentDTO>> getInvestmentsByDateRange(
             @RequestParam LocalDate startDate,
             @RequestParam LocalDate endDate,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
             Principal principal) {
-        List<InvestmentDTO> investments = investmentService.getInvestmentsByDateRange(getCurrentUser(principal), startDate, endDate);
+        List<InvestmentDTO> investments = investmentService.getInvestmentsByDateRange(getCurrentUser(principal), startDate, endDate, includeArchived);
         return ResponseEntity.ok(investments);
     }
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package io.cealus.invest_track.controller;
+
+import io.cealus.invest_track.entity.User;
+import io.cealus.invest_track.fx.CurrencyConversionService;
+import io.cealus.invest_track.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/users")
+@CrossOrigin(origins = "http://localhost:3000")
+public class UserController {
+
+    @Autowired
+    private CurrencyConversionService conversionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User getCurrentUser(Principal principal) {
+        return userRepository.findByUsername(principal.getName())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + principal.getName()));
+    }
+
+    @GetMapping("/me")
+    public ResponseEntity<Map<String, Object>> getCurrentUserSettings(Principal principal) {
+        return ResponseEntity.ok(toSettings(getCurrentUser(principal)));
+    }
+
+    @PutMapping("/me/base-currency")
+    public ResponseEntity<?> setBaseCurrency(@RequestBody Map<String, String> request, Principal principal) {
+        try {
+            User user = conversionService.setBaseCurrency(getCurrentUser(principal), request.get("baseCurrency"));
+            return ResponseEntity.ok(toSettings(user));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
+        }
+    }
+
+    private Map<String, Object> toSettings(User user) {
+        Map<String, Object> settings = new HashMap<>();
+        settings.put("username", user.getUsername());
+        settings.put("baseCurrency", user.getBaseCurrency());
+        return settings;
+    }
+}
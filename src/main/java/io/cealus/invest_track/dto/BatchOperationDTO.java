@@ -0,0 +1,62 @@
+package io.cealus.invest_track.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One entry of POST /api/investments/batch. {@code op} is "patch" or "delete".
+ * For a patch, only the non-null fields are changed. Quantity and purchase price go together,
+ * and when present their product replaces the amount.
+ */
+public class BatchOperationDTO {
+
+    public static final String PATCH = "patch";
+    public static final String DELETE = "delete";
+
+    private String op;
+    private Long id;
+
+    private String name;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate date;
+
+    private BigDecimal amount;
+    private String category;
+    private String symbol;
+    private BigDecimal quantity;
+    private BigDecimal purchasePrice;
+    private String notes;
+    private String currency;
+
+    public boolean hasChanges() {
+        return name != null || date != null || amount != null || category != null || symbol != null
+                || quantity != null || purchasePrice != null || notes != null || currency != null;
+    }
+
+    // Getters and Setters
+    public String getOp() { return op; }
+    public void setOp(String op) { this.op = op; }
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+    public String getSymbol() { return symbol; }
+    public void setSymbol(String symbol) { this.symbol = symbol; }
+    public BigDecimal getQuantity() { return quantity; }
+    public void setQuantity(BigDecimal quantity) { this.quantity = quantity; }
+    public BigDecimal getPurchasePrice() { return purchasePrice; }
+    public void setPurchasePrice(BigDecimal purchasePrice) { this.purchasePrice = purchasePrice; }
+    public String getNotes() { return notes; }
+    public void setNotes(String notes) { this.notes = notes; }
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+}
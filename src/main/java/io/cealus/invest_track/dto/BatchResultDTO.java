@@ -0,0 +1,40 @@
+package io.cealus.invest_track.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one batch operation: updated, deleted, not_found, archived (the row is in the
+ * read-only archive) or invalid. Archived and invalid results carry an error message.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchResultDTO {
+
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+    public static final String NOT_FOUND = "not_found";
+    public static final String ARCHIVED = "archived";
+    public static final String INVALID = "invalid";
+
+    private Long id;
+    private String op;
+    private String status;
+    private String error;
+
+    public BatchResultDTO() {}
+
+    public BatchResultDTO(Long id, String op, String status, String error) {
+        this.id = id;
+        this.op = op;
+        this.status = status;
+        this.error = error;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getOp() { return op; }
+    public void setOp(String op) { this.op = op; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -26,6 +26,13 @@ public class InvestmentDTO {
     private BigDecimal quantity;
     private BigDecimal purchasePrice;
     private String notes;
+    private String currency;
+
+    // Amount converted into the user's base currency at the investment date, when requested
+    private BigDecimal baseAmount;
+
+    // Archived rows are listed with includeArchived but cannot be updated or deleted
+    private boolean archived;
 
     // Constructors
     public InvestmentDTO() {}
@@ -42,6 +49,7 @@ public class InvestmentDTO {
         this.quantity = investment.getQuantity();
         this.purchasePrice = investment.getPurchasePrice();
         this.notes = investment.getNotes();
+        this.currency = investment.getCurrency();
     }
 
     // Convert DTO to Entity
@@ -57,6 +65,7 @@ public class InvestmentDTO {
         investment.setQuantity(this.quantity);
         investment.setPurchasePrice(this.purchasePrice);
         investment.setNotes(this.notes);
+        investment.setCurrency(this.currency != null ? this.currency.toUpperCase() : Investment.DEFAULT_CURRENCY);
 
         // Calculate amount if quantity and price are available
         if (this.quantity != null && this.purchasePrice != null) {
@@ -89,4 +98,10 @@ public class InvestmentDTO {
     public void setPurchasePrice(BigDecimal purchasePrice) { this.purchasePrice = purchasePrice; }
     public String getNotes() { return notes; }
     public void setNotes(String notes) { this.notes = notes; }
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+    public BigDecimal getBaseAmount() { return baseAmount; }
+    public void setBaseAmount(BigDecimal baseAmount) { this.baseAmount = baseAmount; }
+    public boolean isArchived() { return archived; }
+    public void setArchived(boolean archived) { this.archived = archived; }
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package io.cealus.invest_track.encoding;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.cealus.invest_track.dto.InvestmentDTO;
+import io.cealus.invest_track.entity.Investment;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the {@link ColumnarInvestmentEncoder} layout back into DTOs. Payloads written before the
+ * currency column existed are read as {@link Investment#DEFAULT_CURRENCY}, and those without a
+ * timestamp scale as whole seconds.
+ */
+public final class ColumnarInvestmentDecoder {
+
+    private ColumnarInvestmentDecoder() {}
+
+    public static List<InvestmentDTO> read(JsonNode root) {
+        int count = root.get("count").asInt();
+        JsonNode scales = root.get("scales");
+        JsonNode dictionaries = root.get("dictionaries");
+        JsonNode columns = root.get("columns");
+        int amountScale = scales.get("amount").asInt();
+        int quantityScale = scales.get("quantity").asInt();
+        int priceScale = scales.get("purchasePrice").asInt();
+        JsonNode currencies = columns.get("currency");
+        JsonNode baseAmounts = columns.get("baseAmount");
+        JsonNode archivedFlags = columns.get("archived");
+        long timestampUnits = ColumnarInvestmentEncoder.pow10(scales.has("timestamp") ? scales.get("timestamp").asInt() : 0);
+
+        List<InvestmentDTO> investments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            InvestmentDTO dto = new InvestmentDTO();
+            JsonNode id = columns.get("id").get(i);
+            dto.setId(id.isNull() ? null : id.asLong());
+            dto.setName(text(columns.get("name").get(i)));
+            JsonNode date = columns.get("date").get(i);
+            dto.setDate(date.isNull() ? null : LocalDate.ofEpochDay(date.asLong()));
+            dto.setAmount(decimal(columns.get("amount").get(i), amountScale));
+            JsonNode timestamp = columns.get("timestamp").get(i);
+            dto.setTimestamp(timestamp.isNull() ? null : timestamp(timestamp.asLong(), timestampUnits));
+            dto.setCategory(lookup(dictionaries.get("category"), columns.get("category").get(i)));
+            dto.setSymbol(lookup(dictionaries.get("symbol"), columns.get("symbol").get(i)));
+            dto.setQuantity(decimal(columns.get("quantity").get(i), quantityScale));
+            dto.setPurchasePrice(decimal(columns.get("purchasePrice").get(i), priceScale));
+            dto.setNotes(text(columns.get("notes").get(i)));
+            dto.setCurrency(currencies != null ? lookup(dictionaries.get("currency"), currencies.get(i)) : Investment.DEFAULT_CURRENCY);
+            if (baseAmounts != null) {
+                dto.setBaseAmount(decimal(baseAmounts.get(i), scales.get("baseAmount").asInt()));
+            }
+            dto.setArchived(archivedFlags != null && archivedFlags.get(i).asBoolean());
+            investments.add(dto);
+        }
+        return investments;
+    }
+
+    private static LocalDateTime timestamp(long unscaled, long unitsPerSecond) {
+        int nanos = (int) (Math.floorMod(unscaled, unitsPerSecond) * (1_000_000_000L / unitsPerSecond));
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(unscaled, unitsPerSecond), nanos, ZoneOffset.UTC);
+    }
+
+    private static String text(JsonNode node) {
+        return node.isNull() ? null : node.asText();
+    }
+
+    private static BigDecimal decimal(JsonNode node, int scale) {
+        return node.isNull() ? null : new BigDecimal(node.bigIntegerValue(), scale);
+    }
+
+    private static String lookup(JsonNode dictionary, JsonNode id) {
+        int index = id.asInt();
+        return index < 0 ? null : dictionary.get(index).asText();
+    }
+}
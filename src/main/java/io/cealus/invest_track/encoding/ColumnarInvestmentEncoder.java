@@ -0,0 +1,182 @@
+package io.cealus.invest_track.encoding;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.cealus.invest_track.dto.InvestmentDTO;
+import io.cealus.invest_track.entity.Investment;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Writes a list of investments column by column instead of as one object per row.
+ *
+ * Field names appear once, category, symbol and currency are dictionary-encoded (index into
+ * {@code dictionaries}, -1 for null), dates are epoch days, and decimals are unscaled integers at
+ * the scale given in {@code scales}. Timestamps are the stored local date-time since the epoch,
+ * unscaled at {@code scales.timestamp} decimal places of a second (whole seconds if absent).
+ * The layout is independent of the generator, so it works for JSON as well as Smile or CBOR.
+ */
+public final class ColumnarInvestmentEncoder {
+
+    /** Whole seconds: enough for API responses and the smallest values. */
+    public static final int SECONDS = 0;
+
+    /** Microseconds, the precision of a PostgreSQL timestamp; for payloads that replace stored rows. */
+    public static final int MICROSECONDS = 6;
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private ColumnarInvestmentEncoder() {}
+
+    public static void write(List<InvestmentDTO> investments, JsonGenerator generator) throws IOException {
+        write(investments, generator, SECONDS);
+    }
+
+    /** Writes timestamps at {@code timestampScale} decimal places of a second, from 0 to 9. */
+    public static void write(List<InvestmentDTO> investments, JsonGenerator generator, int timestampScale) throws IOException {
+        if (timestampScale < 0 || timestampScale > 9) {
+            throw new IllegalArgumentException("Timestamp scale must be between 0 and 9: " + timestampScale);
+        }
+        Map<String, Integer> categories = new LinkedHashMap<>();
+        Map<String, Integer> symbols = new LinkedHashMap<>();
+        Map<String, Integer> currencies = new LinkedHashMap<>();
+        int[] categoryIds = new int[investments.size()];
+        int[] symbolIds = new int[investments.size()];
+        int[] currencyIds = new int[investments.size()];
+        for (int i = 0; i < investments.size(); i++) {
+            categoryIds[i] = encode(categories, investments.get(i).getCategory());
+            symbolIds[i] = encode(symbols, investments.get(i).getSymbol());
+            currencyIds[i] = encode(currencies, investments.get(i).getCurrency());
+        }
+
+        generator.writeStartObject();
+        generator.writeNumberField("count", investments.size());
+
+        generator.writeObjectFieldStart("scales");
+        generator.writeNumberField("amount", Investment.AMOUNT_SCALE);
+        generator.writeNumberField("quantity", Investment.UNIT_SCALE);
+        generator.writeNumberField("purchasePrice", Investment.UNIT_SCALE);
+        generator.writeNumberField("baseAmount", Investment.AMOUNT_SCALE);
+        generator.writeNumberField("timestamp", timestampScale);
+        generator.writeEndObject();
+
+        generator.writeObjectFieldStart("dictionaries");
+        writeStrings(generator, "category", categories.keySet());
+        writeStrings(generator, "symbol", symbols.keySet());
+        writeStrings(generator, "currency", currencies.keySet());
+        generator.writeEndObject();
+
+        generator.writeObjectFieldStart("columns");
+        generator.writeArrayFieldStart("id");
+        for (InvestmentDTO investment : investments) {
+            writeNullable(generator, investment.getId());
+        }
+        generator.writeEndArray();
+        writeColumn(generator, "name", investments, InvestmentDTO::getName);
+        generator.writeArrayFieldStart("date");
+        for (InvestmentDTO investment : investments) {
+            LocalDate date = investment.getDate();
+            writeNullable(generator, date != null ? date.toEpochDay() : null);
+        }
+        generator.writeEndArray();
+        writeDecimals(generator, "amount", investments, InvestmentDTO::getAmount, Investment.AMOUNT_SCALE);
+        generator.writeArrayFieldStart("timestamp");
+        for (InvestmentDTO investment : investments) {
+            LocalDateTime timestamp = investment.getTimestamp();
+            writeNullable(generator, timestamp != null ? unscaledTimestamp(timestamp, timestampScale) : null);
+        }
+        generator.writeEndArray();
+        generator.writeFieldName("category");
+        generator.writeArray(categoryIds, 0, categoryIds.length);
+        generator.writeFieldName("symbol");
+        generator.writeArray(symbolIds, 0, symbolIds.length);
+        writeDecimals(generator, "quantity", investments, InvestmentDTO::getQuantity, Investment.UNIT_SCALE);
+        writeDecimals(generator, "purchasePrice", investments, InvestmentDTO::getPurchasePrice, Investment.UNIT_SCALE);
+        writeColumn(generator, "notes", investments, InvestmentDTO::getNotes);
+        generator.writeFieldName("currency");
+        generator.writeArray(currencyIds, 0, currencyIds.length);
+        writeDecimals(generator, "baseAmount", investments, InvestmentDTO::getBaseAmount, Investment.AMOUNT_SCALE);
+        generator.writeArrayFieldStart("archived");
+        for (InvestmentDTO investment : investments) {
+            generator.writeBoolean(investment.isArchived());
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+
+        generator.writeEndObject();
+        generator.flush();
+    }
+
+    private static long unscaledTimestamp(LocalDateTime timestamp, int scale) {
+        long unitNanos = NANOS_PER_SECOND / pow10(scale);
+        return Math.addExact(Math.multiplyExact(timestamp.toEpochSecond(ZoneOffset.UTC), pow10(scale)),
+                timestamp.getNano() / unitNanos);
+    }
+
+    static long pow10(int exponent) {
+        long value = 1;
+        for (int i = 0; i < exponent; i++) {
+            value *= 10;
+        }
+        return value;
+    }
+
+    private static int encode(Map<String, Integer> dictionary, String value) {
+        if (value == null) {
+            return -1;
+        }
+        return dictionary.computeIfAbsent(value, v -> dictionary.size());
+    }
+
+    private static void writeStrings(JsonGenerator generator, String field, Iterable<String> values) throws IOException {
+        generator.writeArrayFieldStart(field);
+        for (String value : values) {
+            generator.writeString(value);
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeColumn(JsonGenerator generator, String field, List<InvestmentDTO> investments,
+                                    Function<InvestmentDTO, String> getter) throws IOException {
+        generator.writeArrayFieldStart(field);
+        for (InvestmentDTO investment : investments) {
+            String value = getter.apply(investment);
+            if (value != null) {
+                generator.writeString(value);
+            } else {
+                generator.writeNull();
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeDecimals(JsonGenerator generator, String field, List<InvestmentDTO> investments,
+                                      Function<InvestmentDTO, BigDecimal> getter, int scale) throws IOException {
+        generator.writeArrayFieldStart(field);
+        for (InvestmentDTO investment : investments) {
+            BigDecimal value = getter.apply(investment);
+            if (value != null) {
+                generator.writeNumber(value.setScale(scale, RoundingMode.HALF_UP).unscaledValue());
+            } else {
+                generator.writeNull();
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeNullable(JsonGenerator generator, Long value) throws IOException {
+        if (value != null) {
+            generator.writeNumber(value);
+        } else {
+            generator.writeNull();
+        }
+    }
+}
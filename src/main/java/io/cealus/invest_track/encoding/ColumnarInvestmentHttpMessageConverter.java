@@ -0,0 +1,71 @@
+package io.cealus.invest_track.encoding;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.cealus.invest_track.dto.InvestmentDTO;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Serves {@code List<InvestmentDTO>} responses in the {@link ColumnarInvestmentEncoder} layout
+ * when the client asks for {@link InvestmentMediaTypes#COLUMNAR_JSON}. Write-only; requests still use plain JSON.
+ * Endpoints opt in through {@code produces}, which keeps plain JSON the default for {@code Accept: *}{@code /*}.
+ */
+public class ColumnarInvestmentHttpMessageConverter extends AbstractGenericHttpMessageConverter<List<InvestmentDTO>> {
+
+    private final JsonFactory jsonFactory;
+
+    public ColumnarInvestmentHttpMessageConverter(JsonFactory jsonFactory) {
+        super(MediaType.parseMediaType(InvestmentMediaTypes.COLUMNAR_JSON));
+        this.jsonFactory = jsonFactory;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (type == null || !canWrite(mediaType)) {
+            return false;
+        }
+        ResolvableType resolved = ResolvableType.forType(type);
+        if (!List.class.isAssignableFrom(resolved.toClass())) {
+            return false;
+        }
+        Class<?> elementType = resolved.asCollection().resolveGeneric(0);
+        return elementType != null && InvestmentDTO.class.isAssignableFrom(elementType);
+    }
+
+    @Override
+    protected void writeInternal(List<InvestmentDTO> investments, Type type, HttpOutputMessage outputMessage) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(outputMessage.getBody(), JsonEncoding.UTF8)) {
+            ColumnarInvestmentEncoder.write(investments, generator);
+        }
+    }
+
+    @Override
+    public List<InvestmentDTO> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar investment format is response-only", inputMessage);
+    }
+
+    @Override
+    protected List<InvestmentDTO> readInternal(Class<? extends List<InvestmentDTO>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar investment format is response-only", inputMessage);
+    }
+}
@@ -0,0 +1,14 @@
+package io.cealus.invest_track.encoding;
+
+import org.springframework.http.MediaType;
+
+/** Response encodings offered by the investment list endpoints, plain JSON first as the default. */
+public final class InvestmentMediaTypes {
+
+    public static final String JSON = MediaType.APPLICATION_JSON_VALUE;
+    public static final String SMILE = "application/x-jackson-smile";
+    public static final String CBOR = MediaType.APPLICATION_CBOR_VALUE;
+    public static final String COLUMNAR_JSON = "application/vnd.investtrack.columnar+json";
+
+    private InvestmentMediaTypes() {}
+}
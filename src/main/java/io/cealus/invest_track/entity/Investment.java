@@ -2,14 +2,25 @@ package io.cealus.invest_track.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "investments")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "investments")
 public class Investment {
 
+    public static final String DEFAULT_CURRENCY = "USD";
+
+    // Column scales for amounts and for per-unit values (quantity, purchase price)
+    public static final int AMOUNT_SCALE = 4;
+    public static final int UNIT_SCALE = 8;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -25,19 +36,24 @@ public class Investment {
     
     private String symbol; // e.g., AAPL, BTC
     
-    @Column(precision = 19, scale = 8)
+    @Column(precision = 19, scale = UNIT_SCALE)
     private BigDecimal quantity;
     
-    @Column(name = "purchase_price", precision = 19, scale = 8)
+    @Column(name = "purchase_price", precision = 19, scale = UNIT_SCALE)
     private BigDecimal purchasePrice;
 
     @Column(length = 1024) // A field for user notes
     private String notes;
 
     // This will now be a calculated value, but we can still store it for simplicity.
-    @Column(nullable = false, precision = 19, scale = 4)
+    @Column(nullable = false, precision = 19, scale = AMOUNT_SCALE)
     private BigDecimal amount;
 
+    // ISO 4217 code that amount and purchasePrice are expressed in
+    @Column(nullable = false, length = 3)
+    @ColumnDefault("'USD'")
+    private String currency = DEFAULT_CURRENCY;
+
     @Column(nullable = false)
     private LocalDateTime timestamp;
 
@@ -70,6 +86,8 @@ public class Investment {
     public void setNotes(String notes) { this.notes = notes; }
     public BigDecimal getAmount() { return amount; }
     public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
     public LocalDateTime getTimestamp() { return timestamp; }
     public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
     public User getUser() { return user; }
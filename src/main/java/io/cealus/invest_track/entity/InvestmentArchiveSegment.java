@@ -0,0 +1,84 @@
+package io.cealus.invest_track.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A block of one user's archived investment rows, stored as a gzip-compressed columnar payload.
+ * The aggregate columns let stats include archived rows without decompressing the payload.
+ * All rows of a segment share one currency, so the total stays meaningful.
+ */
+@Entity
+@Table(name = "investment_archive_segments", indexes = @Index(name = "idx_archive_segments_user", columnList = "user_id"))
+public class InvestmentArchiveSegment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @JsonIgnore
+    private User user;
+
+    @Column(name = "from_date", nullable = false)
+    private LocalDate fromDate;
+
+    @Column(name = "to_date", nullable = false)
+    private LocalDate toDate;
+
+    @Column(name = "row_count", nullable = false)
+    private long rowCount;
+
+    @Column(name = "total_amount", nullable = false, precision = 19, scale = Investment.AMOUNT_SCALE)
+    private BigDecimal totalAmount;
+
+    @Column(nullable = false, length = 3)
+    @ColumnDefault("'USD'")
+    private String currency = Investment.DEFAULT_CURRENCY;
+
+    // Timestamp and date of the most recently entered row, for getLatestInvestmentDate
+    @Column(name = "latest_timestamp", nullable = false)
+    private LocalDateTime latestTimestamp;
+
+    @Column(name = "latest_date", nullable = false)
+    private LocalDate latestDate;
+
+    @Column(nullable = false)
+    private byte[] payload;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    public InvestmentArchiveSegment() {
+        this.archivedAt = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+    public LocalDate getFromDate() { return fromDate; }
+    public void setFromDate(LocalDate fromDate) { this.fromDate = fromDate; }
+    public LocalDate getToDate() { return toDate; }
+    public void setToDate(LocalDate toDate) { this.toDate = toDate; }
+    public long getRowCount() { return rowCount; }
+    public void setRowCount(long rowCount) { this.rowCount = rowCount; }
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+    public LocalDateTime getLatestTimestamp() { return latestTimestamp; }
+    public void setLatestTimestamp(LocalDateTime latestTimestamp) { this.latestTimestamp = latestTimestamp; }
+    public LocalDate getLatestDate() { return latestDate; }
+    public void setLatestDate(LocalDate latestDate) { this.latestDate = latestDate; }
+    public byte[] getPayload() { return payload; }
+    public void setPayload(byte[] payload) { this.payload = payload; }
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+    public void setArchivedAt(LocalDateTime archivedAt) { this.archivedAt = archivedAt; }
+}
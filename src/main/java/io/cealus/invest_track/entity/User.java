@@ -1,11 +1,16 @@
 package io.cealus.invest_track.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "users") // "user" can be a reserved keyword
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 public class User {
 
     @Id
@@ -18,6 +23,11 @@ public class User {
     @Column(nullable = false)
     private String password;
 
+    // Currency that stats, history and export are converted into
+    @Column(name = "base_currency", nullable = false, length = 3)
+    @ColumnDefault("'USD'")
+    private String baseCurrency = Investment.DEFAULT_CURRENCY;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Investment> investments = new ArrayList<>();
 
@@ -28,6 +38,8 @@ public class User {
     public void setUsername(String username) { this.username = username; }
     public String getPassword() { return password; }
     public void setPassword(String password) { this.password = password; }
+    public String getBaseCurrency() { return baseCurrency; }
+    public void setBaseCurrency(String baseCurrency) { this.baseCurrency = baseCurrency; }
     public List<Investment> getInvestments() { return investments; }
     public void setInvestments(List<Investment> investments) { this.investments = investments; }
 }
\ No newline at end of file
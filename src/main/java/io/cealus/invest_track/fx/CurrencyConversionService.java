@@ -0,0 +1,160 @@
+package io.cealus.invest_track.fx;
+
+import io.cealus.invest_track.dto.InvestmentDTO;
+import io.cealus.invest_track.entity.Investment;
+import io.cealus.invest_track.entity.User;
+import io.cealus.invest_track.repository.InvestmentRepository;
+import io.cealus.invest_track.repository.UserRepository;
+import io.cealus.invest_track.service.InvestmentArchiveService;
+import io.cealus.invest_track.service.InvestmentsChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Converts investment amounts into the user's base currency, each at the rate of its own date.
+ *
+ * Per-user converted totals are cached until the user's investments or base currency change, or
+ * new rates are loaded. As in the portfolio store, a version counter keeps a total computed while
+ * an invalidation happened from being cached.
+ */
+@Service
+@Transactional(readOnly = true)
+public class CurrencyConversionService {
+
+    @Autowired
+    private FxRateStore rateStore;
+
+    @Autowired
+    private InvestmentRepository investmentRepository;
+
+    @Autowired
+    private InvestmentArchiveService archiveService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, BigDecimal> totals = new HashMap<>();
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final AtomicLong rateVersion = new AtomicLong();
+
+    public BigDecimal toBaseCurrency(BigDecimal amount, String currency, LocalDate date, User user) {
+        BigDecimal converted = rateStore.convert(amount, currency, user.getBaseCurrency(), date);
+        return converted != null ? converted.setScale(Investment.AMOUNT_SCALE, RoundingMode.HALF_UP) : null;
+    }
+
+    /** Sets {@code baseAmount} on each row; returns the same list for chaining. */
+    public List<InvestmentDTO> withBaseAmounts(List<InvestmentDTO> investments, User user) {
+        for (InvestmentDTO investment : investments) {
+            investment.setBaseAmount(toBaseCurrency(investment.getAmount(), investment.getCurrency(), investment.getDate(), user));
+        }
+        return investments;
+    }
+
+    /**
+     * Hot and archived amounts, converted into the base currency and summed. Amounts in a currency
+     * without loaded rates cannot be converted and are left out of the total.
+     */
+    public BigDecimal getTotalAmount(User user) {
+        Long userId = user.getId();
+        synchronized (totals) {
+            BigDecimal cached = totals.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        AtomicLong version = versions.computeIfAbsent(userId, id -> new AtomicLong());
+        long loadedAt = version.get();
+        long ratesAt = rateVersion.get();
+        BigDecimal total = computeTotalAmount(user);
+
+        synchronized (totals) {
+            if (version.get() == loadedAt && rateVersion.get() == ratesAt) {
+                totals.put(userId, total);
+            }
+        }
+        return total;
+    }
+
+    private BigDecimal computeTotalAmount(User user) {
+        String base = user.getBaseCurrency();
+        BigDecimal total = BigDecimal.ZERO;
+        // One row per currency and day, so the work is bounded by distinct days rather than investments
+        for (Object[] row : investmentRepository.getTotalAmountByCurrencyAndDate(user)) {
+            total = addConverted(total, rateStore.convert((BigDecimal) row[2], (String) row[0], base, (LocalDate) row[1]));
+        }
+        // Segments in the base currency are summed from their metadata; only the others are decoded
+        total = total.add(archiveService.getArchivedTotalAmount(user, base));
+        for (InvestmentDTO archived : archiveService.getArchivedInvestmentsNotIn(user, base)) {
+            total = addConverted(total, rateStore.convert(archived.getAmount(), archived.getCurrency(), base, archived.getDate()));
+        }
+        return total.setScale(Investment.AMOUNT_SCALE, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal addConverted(BigDecimal total, BigDecimal converted) {
+        return converted != null ? total.add(converted) : total;
+    }
+
+    /**
+     * Normalized code for a currency that amounts can be converted from; null means the default.
+     * Rejecting unknown currencies up front keeps stats from failing later.
+     */
+    public String checkCurrency(String currency) {
+        if (currency == null) {
+            return Investment.DEFAULT_CURRENCY;
+        }
+        String code = FxRateStore.normalize(currency);
+        if (!rateStore.hasRates(code)) {
+            throw new IllegalArgumentException("No FX rates available for " + code);
+        }
+        return code;
+    }
+
+    @Transactional
+    public User setBaseCurrency(User user, String currency) {
+        if (currency == null) {
+            throw new IllegalArgumentException("Base currency is required");
+        }
+        user.setBaseCurrency(checkCurrency(currency));
+        User saved = userRepository.save(user);
+        // Every converted amount of this user depends on the base currency
+        eventPublisher.publishEvent(new InvestmentsChangedEvent(user.getId()));
+        return saved;
+    }
+
+    public void invalidate(Long userId) {
+        versions.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+        synchronized (totals) {
+            totals.remove(userId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInvestmentsChanged(InvestmentsChangedEvent event) {
+        invalidate(event.getUserId());
+    }
+
+    @EventListener
+    public void onRatesUpdated(FxRatesUpdatedEvent event) {
+        rateVersion.incrementAndGet();
+        synchronized (totals) {
+            totals.clear();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package io.cealus.invest_track.fx;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Daily FX rates, read from CSV files dropped into {@code fx.rates.drop-dir}.
+ *
+ * Each line is {@code date,currency,rate} where rate is the value of one unit of the currency in
+ * {@link #PIVOT}; a header line and lines starting with '#' are skipped. The directory is rescanned
+ * on a fixed delay and only new or modified files are read. Rates are kept per currency as a
+ * sorted epoch-day array with a parallel rate array, so a lookup is one binary search.
+ */
+@Component
+public class FxRateStore {
+
+    public static final String PIVOT = "USD";
+
+    private static final Logger log = LoggerFactory.getLogger(FxRateStore.class);
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${fx.rates.drop-dir:fx-rates}")
+    private String dropDir;
+
+    // Readers only ever see a complete, immutable snapshot
+    private volatile Map<String, RateSeries> series = Map.of();
+
+    // Guarded by this: every rate loaded so far, and the last-modified time of each file read
+    private final Map<String, TreeMap<Integer, BigDecimal>> loadedRates = new HashMap<>();
+    private final Map<Path, Long> loadedFiles = new HashMap<>();
+
+    @PostConstruct
+    void init() {
+        scan();
+    }
+
+    @Scheduled(fixedDelayString = "${fx.rates.poll-ms:60000}")
+    public synchronized void scan() {
+        Path dir = Paths.get(dropDir);
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        Set<String> changed = new HashSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.csv")) {
+            for (Path file : files) {
+                // One unreadable file must not stop the others, nor application startup
+                try {
+                    long modified = Files.getLastModifiedTime(file).toMillis();
+                    Long seen = loadedFiles.get(file);
+                    if (seen == null || seen != modified) {
+                        changed.addAll(load(file));
+                        loadedFiles.put(file, modified);
+                    }
+                } catch (IOException | UncheckedIOException e) {
+                    log.warn("Could not read FX rate file {}, retrying on the next scan", file, e);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not scan FX rate directory {}", dir, e);
+            return;
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        Map<String, RateSeries> next = new HashMap<>(series);
+        for (String currency : changed) {
+            next.put(currency, RateSeries.of(loadedRates.get(currency)));
+        }
+        series = Map.copyOf(next);
+        eventPublisher.publishEvent(new FxRatesUpdatedEvent(Set.copyOf(changed)));
+    }
+
+    private Set<String> load(Path file) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read FX rate file " + file, e);
+        }
+        Set<String> currencies = new HashSet<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#") || (i == 0 && line.toLowerCase().startsWith("date"))) {
+                continue;
+            }
+            String[] fields = line.split(",");
+            try {
+                if (fields.length != 3) {
+                    throw new IllegalArgumentException("expected date,currency,rate");
+                }
+                int epochDay = Math.toIntExact(LocalDate.parse(fields[0].trim()).toEpochDay());
+                String currency = normalize(fields[1]);
+                BigDecimal rate = new BigDecimal(fields[2].trim());
+                if (rate.signum() <= 0) {
+                    throw new IllegalArgumentException("rate must be positive");
+                }
+                loadedRates.computeIfAbsent(currency, c -> new TreeMap<>()).put(epochDay, rate);
+                currencies.add(currency);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                log.warn("Skipping line {} of {}: {}", i + 1, file, e.getMessage());
+            }
+        }
+        return currencies;
+    }
+
+    /**
+     * Value of one unit of {@code currency} in {@link #PIVOT} on {@code date}: the latest rate on or
+     * before that date, or the earliest known rate for dates before the series starts. Null if no
+     * rates are loaded for the currency.
+     */
+    public BigDecimal rateToPivot(String currency, LocalDate date) {
+        if (PIVOT.equals(currency)) {
+            return BigDecimal.ONE;
+        }
+        RateSeries rates = series.get(currency);
+        return rates != null ? rates.at(Math.toIntExact(date.toEpochDay())) : null;
+    }
+
+    /**
+     * {@code amount} in {@code to} at the rates of {@code date}, or null if either currency has no
+     * rates loaded. Rate files can fail to load, so callers must expect a missing conversion.
+     */
+    public BigDecimal convert(BigDecimal amount, String from, String to, LocalDate date) {
+        if (amount == null || from.equals(to)) {
+            return amount;
+        }
+        BigDecimal fromRate = rateToPivot(from, date);
+        BigDecimal toRate = rateToPivot(to, date);
+        if (fromRate == null || toRate == null) {
+            return null;
+        }
+        return amount.multiply(fromRate, MathContext.DECIMAL128).divide(toRate, MathContext.DECIMAL128);
+    }
+
+    public boolean hasRates(String currency) {
+        return PIVOT.equals(currency) || series.containsKey(currency);
+    }
+
+    /** Upper-cases a currency code and checks it looks like ISO 4217. */
+    public static String normalize(String currency) {
+        String code = currency.trim().toUpperCase();
+        if (!code.matches("[A-Z]{3}")) {
+            throw new IllegalArgumentException("Invalid currency code: " + currency);
+        }
+        return code;
+    }
+
+    static final class RateSeries {
+        private final int[] epochDays;
+        private final BigDecimal[] rates;
+
+        private RateSeries(int[] epochDays, BigDecimal[] rates) {
+            this.epochDays = epochDays;
+            this.rates = rates;
+        }
+
+        static RateSeries of(TreeMap<Integer, BigDecimal> byDay) {
+            int[] days = new int[byDay.size()];
+            BigDecimal[] rates = new BigDecimal[byDay.size()];
+            int i = 0;
+            for (Map.Entry<Integer, BigDecimal> entry : byDay.entrySet()) {
+                days[i] = entry.getKey();
+                rates[i] = entry.getValue();
+                i++;
+            }
+            return new RateSeries(days, rates);
+        }
+
+        BigDecimal at(int epochDay) {
+            int index = Arrays.binarySearch(epochDays, epochDay);
+            if (index < 0) {
+                // Insertion point minus one is the last day before epochDay
+                index = Math.max(0, -index - 2);
+            }
+            return rates[index];
+        }
+    }
+}
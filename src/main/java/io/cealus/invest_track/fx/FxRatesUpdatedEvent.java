@@ -0,0 +1,20 @@
+package io.cealus.invest_track.fx;
+
+import java.util.Set;
+
+/**
+ * Published after new FX rates were loaded. Anything that caches converted amounts must drop them,
+ * since a new rate can apply to dates that were already converted.
+ */
+public class FxRatesUpdatedEvent {
+
+    private final Set<String> currencies;
+
+    public FxRatesUpdatedEvent(Set<String> currencies) {
+        this.currencies = currencies;
+    }
+
+    public Set<String> getCurrencies() {
+        return currencies;
+    }
+}
@@ -0,0 +1,329 @@
+package io.cealus.invest_track.portfolio;
+
+import io.cealus.invest_track.entity.Investment;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Immutable column-oriented snapshot of one user's investments.
+ *
+ * Rows are sorted by date so a date filter is a binary search into {@link #epochDays}.
+ * Amounts are stored unscaled at {@link Investment#AMOUNT_SCALE}, quantity and price at
+ * {@link Investment#UNIT_SCALE}. Category and symbol are dictionary-encoded;
+ * id {@link #NO_ID} means the value was null. The scan methods do not allocate.
+ * New rows are added with {@link #withAppended}, which copies instead of rereading the portfolio.
+ */
+public final class PortfolioColumns {
+
+    public static final int NO_ID = -1;
+    public static final long NO_VALUE = Long.MIN_VALUE;
+
+    private final int size;
+    private final long[] investmentIds;
+    private final int[] epochDays;
+    private final long[] amounts;
+    private final long[] quantities;
+    private final long[] prices;
+    private final int[] categoryIds;
+    private final int[] symbolIds;
+    private final String[] categories;
+    private final String[] symbols;
+
+    private PortfolioColumns(int size, long[] investmentIds, int[] epochDays, long[] amounts, long[] quantities, long[] prices,
+                             int[] categoryIds, int[] symbolIds, String[] categories, String[] symbols) {
+        this.size = size;
+        this.investmentIds = investmentIds;
+        this.epochDays = epochDays;
+        this.amounts = amounts;
+        this.quantities = quantities;
+        this.prices = prices;
+        this.categoryIds = categoryIds;
+        this.symbolIds = symbolIds;
+        this.categories = categories;
+        this.symbols = symbols;
+    }
+
+    public static PortfolioColumns from(List<Investment> investments) {
+        return from(investments, (value, investment) -> value);
+    }
+
+    /**
+     * Builds the snapshot with amount and purchase price passed through {@code convert}, which
+     * receives the value and its row, e.g. to express every row in one currency. Rows whose amount
+     * {@code convert} maps to null cannot be summed and are left out.
+     */
+    public static PortfolioColumns from(List<Investment> investments, BiFunction<BigDecimal, Investment, BigDecimal> convert) {
+        List<Investment> sorted = new ArrayList<>(investments);
+        sorted.sort(Comparator.comparing(Investment::getDate));
+
+        long[] investmentIds = new long[sorted.size()];
+        int[] epochDays = new int[sorted.size()];
+        long[] amounts = new long[sorted.size()];
+        long[] quantities = new long[sorted.size()];
+        long[] prices = new long[sorted.size()];
+        int[] categoryIds = new int[sorted.size()];
+        int[] symbolIds = new int[sorted.size()];
+        Map<String, Integer> categoryDictionary = new LinkedHashMap<>();
+        Map<String, Integer> symbolDictionary = new LinkedHashMap<>();
+
+        int n = 0;
+        for (Investment investment : sorted) {
+            BigDecimal amount = convert.apply(investment.getAmount(), investment);
+            if (amount == null) {
+                continue;
+            }
+            investmentIds[n] = investment.getId() != null ? investment.getId() : NO_VALUE;
+            epochDays[n] = Math.toIntExact(investment.getDate().toEpochDay());
+            amounts[n] = unscaled(amount, Investment.AMOUNT_SCALE);
+            quantities[n] = unscaled(investment.getQuantity(), Investment.UNIT_SCALE);
+            prices[n] = unscaled(convert.apply(investment.getPurchasePrice(), investment), Investment.UNIT_SCALE);
+            categoryIds[n] = encode(categoryDictionary, investment.getCategory());
+            symbolIds[n] = encode(symbolDictionary, investment.getSymbol());
+            n++;
+        }
+        if (n < sorted.size()) {
+            investmentIds = Arrays.copyOf(investmentIds, n);
+            epochDays = Arrays.copyOf(epochDays, n);
+            amounts = Arrays.copyOf(amounts, n);
+            quantities = Arrays.copyOf(quantities, n);
+            prices = Arrays.copyOf(prices, n);
+            categoryIds = Arrays.copyOf(categoryIds, n);
+            symbolIds = Arrays.copyOf(symbolIds, n);
+        }
+        return new PortfolioColumns(n, investmentIds, epochDays, amounts, quantities, prices, categoryIds, symbolIds,
+                categoryDictionary.keySet().toArray(new String[0]),
+                symbolDictionary.keySet().toArray(new String[0]));
+    }
+
+    /**
+     * A new snapshot with {@code investments} added, converted as in {@link #from(List, BiFunction)}.
+     * Rows whose id this snapshot already holds are skipped, so an insert that a concurrent load
+     * already picked up is not counted twice. Costs one pass over both snapshots.
+     */
+    public PortfolioColumns withAppended(List<Investment> investments, BiFunction<BigDecimal, Investment, BigDecimal> convert) {
+        Map<Long, Investment> byId = new HashMap<>();
+        List<Investment> added = new ArrayList<>();
+        for (Investment investment : investments) {
+            if (investment.getId() != null) {
+                byId.put(investment.getId(), investment);
+            } else {
+                added.add(investment);
+            }
+        }
+        for (int i = 0; i < size && !byId.isEmpty(); i++) {
+            byId.remove(investmentIds[i]);
+        }
+        added.addAll(byId.values());
+        if (added.isEmpty()) {
+            return this;
+        }
+        return merge(this, from(added, convert));
+    }
+
+    // Both inputs are sorted by date; on equal dates the rows of a come first
+    private static PortfolioColumns merge(PortfolioColumns a, PortfolioColumns b) {
+        Map<String, Integer> categoryDictionary = dictionary(a.categories);
+        Map<String, Integer> symbolDictionary = dictionary(a.symbols);
+        int[] categoryRemap = remap(categoryDictionary, b.categories);
+        int[] symbolRemap = remap(symbolDictionary, b.symbols);
+
+        int n = a.size + b.size;
+        long[] investmentIds = new long[n];
+        int[] epochDays = new int[n];
+        long[] amounts = new long[n];
+        long[] quantities = new long[n];
+        long[] prices = new long[n];
+        int[] categoryIds = new int[n];
+        int[] symbolIds = new int[n];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < n; k++) {
+            if (j >= b.size || (i < a.size && a.epochDays[i] <= b.epochDays[j])) {
+                investmentIds[k] = a.investmentIds[i];
+                epochDays[k] = a.epochDays[i];
+                amounts[k] = a.amounts[i];
+                quantities[k] = a.quantities[i];
+                prices[k] = a.prices[i];
+                categoryIds[k] = a.categoryIds[i];
+                symbolIds[k] = a.symbolIds[i];
+                i++;
+            } else {
+                investmentIds[k] = b.investmentIds[j];
+                epochDays[k] = b.epochDays[j];
+                amounts[k] = b.amounts[j];
+                quantities[k] = b.quantities[j];
+                prices[k] = b.prices[j];
+                categoryIds[k] = b.categoryIds[j] == NO_ID ? NO_ID : categoryRemap[b.categoryIds[j]];
+                symbolIds[k] = b.symbolIds[j] == NO_ID ? NO_ID : symbolRemap[b.symbolIds[j]];
+                j++;
+            }
+        }
+        return new PortfolioColumns(n, investmentIds, epochDays, amounts, quantities, prices, categoryIds, symbolIds,
+                categoryDictionary.keySet().toArray(new String[0]),
+                symbolDictionary.keySet().toArray(new String[0]));
+    }
+
+    private static Map<String, Integer> dictionary(String[] values) {
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        for (String value : values) {
+            encode(dictionary, value);
+        }
+        return dictionary;
+    }
+
+    // Adds the values to the dictionary; element i is the new id of values[i]
+    private static int[] remap(Map<String, Integer> dictionary, String[] values) {
+        int[] ids = new int[values.length];
+        for (int id = 0; id < values.length; id++) {
+            ids[id] = encode(dictionary, values[id]);
+        }
+        return ids;
+    }
+
+    private static long unscaled(BigDecimal value, int scale) {
+        if (value == null) {
+            return NO_VALUE;
+        }
+        return value.setScale(scale, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static int encode(Map<String, Integer> dictionary, String value) {
+        if (value == null) {
+            return NO_ID;
+        }
+        return dictionary.computeIfAbsent(value, v -> dictionary.size());
+    }
+
+    // --- Date filtering ---
+
+    /** First row whose date is on or after {@code epochDay}. */
+    public int lowerBound(int epochDay) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (epochDays[mid] < epochDay) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /** First row whose date is after {@code epochDay}. */
+    public int upperBound(int epochDay) {
+        return lowerBound(epochDay == Integer.MAX_VALUE ? epochDay : epochDay + 1);
+    }
+
+    public static int toEpochDay(LocalDate date, int ifNull) {
+        return date != null ? Math.toIntExact(date.toEpochDay()) : ifNull;
+    }
+
+    // --- Allocation-free scans over the row range [from, to) ---
+
+    public long sumAmounts(int from, int to) {
+        long total = 0;
+        for (int i = from; i < to; i++) {
+            total = Math.addExact(total, amounts[i]);
+        }
+        return total;
+    }
+
+    /** Adds each row's amount into {@code totals[categoryId]}; rows without a category are skipped. */
+    public void sumAmountsByCategory(int from, int to, long[] totals) {
+        for (int i = from; i < to; i++) {
+            int id = categoryIds[i];
+            if (id != NO_ID) {
+                totals[id] = Math.addExact(totals[id], amounts[i]);
+            }
+        }
+    }
+
+    /** Adds each row's amount into {@code totals[symbolId]}; rows without a symbol are skipped. */
+    public void sumAmountsBySymbol(int from, int to, long[] totals) {
+        for (int i = from; i < to; i++) {
+            int id = symbolIds[i];
+            if (id != NO_ID) {
+                totals[id] = Math.addExact(totals[id], amounts[i]);
+            }
+        }
+    }
+
+    // --- Boxed views for the API layer ---
+
+    public Map<String, BigDecimal> amountsByCategory(int from, int to) {
+        long[] totals = new long[categories.length];
+        sumAmountsByCategory(from, to, totals);
+        return toMap(categories, totals);
+    }
+
+    public Map<String, BigDecimal> amountsBySymbol(int from, int to) {
+        long[] totals = new long[symbols.length];
+        sumAmountsBySymbol(from, to, totals);
+        return toMap(symbols, totals);
+    }
+
+    private static Map<String, BigDecimal> toMap(String[] dictionary, long[] totals) {
+        Map<String, BigDecimal> result = new HashMap<>();
+        for (int id = 0; id < dictionary.length; id++) {
+            if (totals[id] != 0) {
+                result.put(dictionary[id], BigDecimal.valueOf(totals[id], Investment.AMOUNT_SCALE));
+            }
+        }
+        return result;
+    }
+
+    public static BigDecimal amountOf(long unscaledAmount) {
+        return BigDecimal.valueOf(unscaledAmount, Investment.AMOUNT_SCALE);
+    }
+
+    /** Rough heap footprint used by {@link PortfolioStore} for its memory budget. */
+    public long estimatedBytes() {
+        long arrays = 7L * 16 + (long) size * (Integer.BYTES * 3 + Long.BYTES * 4);
+        long dictionaries = dictionaryBytes(categories) + dictionaryBytes(symbols);
+        return 64 + arrays + dictionaries;
+    }
+
+    private static long dictionaryBytes(String[] dictionary) {
+        long bytes = 16 + 8L * dictionary.length;
+        for (String value : dictionary) {
+            bytes += 40 + value.length();
+        }
+        return bytes;
+    }
+
+    // --- Column accessors (read-only by convention, arrays are not copied) ---
+
+    public int size() { return size; }
+    public long investmentId(int row) { return investmentIds[row]; }
+    public int epochDay(int row) { return epochDays[row]; }
+    public long amount(int row) { return amounts[row]; }
+    public long quantity(int row) { return quantities[row]; }
+    public long price(int row) { return prices[row]; }
+    public int categoryId(int row) { return categoryIds[row]; }
+    public int symbolId(int row) { return symbolIds[row]; }
+    public int categoryCount() { return categories.length; }
+    public int symbolCount() { return symbols.length; }
+    public String category(int id) { return categories[id]; }
+    public String symbol(int id) { return symbols[id]; }
+
+    public int symbolId(String symbol) {
+        for (int id = 0; id < symbols.length; id++) {
+            if (symbols[id].equals(symbol)) {
+                return id;
+            }
+        }
+        return NO_ID;
+    }
+}
@@ -0,0 +1,188 @@
+package io.cealus.invest_track.portfolio;
+
+import io.cealus.invest_track.entity.Investment;
+import io.cealus.invest_track.entity.User;
+import io.cealus.invest_track.fx.FxRateStore;
+import io.cealus.invest_track.fx.FxRatesUpdatedEvent;
+import io.cealus.invest_track.repository.InvestmentRepository;
+import io.cealus.invest_track.service.InvestmentArchiveService;
+import io.cealus.invest_track.service.InvestmentsChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * Lazily loaded, LRU-evicted cache of {@link PortfolioColumns} per user.
+ *
+ * Committed inserts are merged into the user's snapshot, so a steady stream of new rows costs a
+ * copy of the columns per write rather than a reload of the portfolio. Any other write drops the
+ * snapshot. Each user has a version counter so a snapshot that was loaded while a write committed
+ * is never cached.
+ * Amounts and prices are held in the user's base currency, so new FX rates drop every snapshot.
+ * Rows in a currency without loaded rates are left out until rates for it arrive.
+ */
+@Component
+public class PortfolioStore {
+
+    @Autowired
+    private InvestmentRepository investmentRepository;
+
+    @Autowired
+    private InvestmentArchiveService archiveService;
+
+    @Autowired
+    private FxRateStore rateStore;
+
+    @Value("${portfolio.store.max-bytes:67108864}")
+    private long maxBytes;
+
+    // Access-ordered, so iteration starts at the least recently used user
+    private final LinkedHashMap<Long, PortfolioColumns> snapshots = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+    private long usedBytes;
+
+    public PortfolioColumns get(User user) {
+        return get(user, true);
+    }
+
+    /**
+     * The cached snapshot if there is one, otherwise a fresh load that is not added to the store.
+     * For batch jobs that walk many users and must not push hot users out of the budget.
+     */
+    public PortfolioColumns getWithoutCaching(User user) {
+        return get(user, false);
+    }
+
+    /**
+     * Changes whenever the user's snapshot would change. A value derived from a snapshot that was
+     * loaded after reading version {@code v} is current for as long as this still returns {@code v}.
+     */
+    public long version(Long userId) {
+        AtomicLong version = versions.get(userId);
+        return version != null ? version.get() : 0;
+    }
+
+    private PortfolioColumns get(User user, boolean cacheResult) {
+        Long userId = user.getId();
+        synchronized (snapshots) {
+            PortfolioColumns cached = snapshots.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        AtomicLong version = versions.computeIfAbsent(userId, id -> new AtomicLong());
+        long loadedAt = version.get();
+        // Snapshots cover archived rows too, so breakdowns and returns see the whole history
+        List<Investment> rows = new ArrayList<>(investmentRepository.findByUserOrderByTimestampDesc(user));
+        rows.addAll(archiveService.getArchivedRows(user));
+        PortfolioColumns loaded = PortfolioColumns.from(rows, toBaseCurrency(user.getBaseCurrency()));
+        if (!cacheResult) {
+            return loaded;
+        }
+
+        synchronized (snapshots) {
+            if (version.get() == loadedAt) {
+                PortfolioColumns previous = snapshots.put(userId, loaded);
+                if (previous != null) {
+                    usedBytes -= previous.estimatedBytes();
+                }
+                usedBytes += loaded.estimatedBytes();
+                evictColdUsers(userId);
+            }
+        }
+        return loaded;
+    }
+
+    private BiFunction<BigDecimal, Investment, BigDecimal> toBaseCurrency(String base) {
+        return (value, row) -> rateStore.convert(value, row.getCurrency(), base, row.getDate());
+    }
+
+    /** Adds newly committed rows to the user's snapshot, if one is cached. */
+    public void append(Long userId, List<Investment> investments) {
+        // Loads already running may or may not see the rows, so they must not be cached
+        versions.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+        PortfolioColumns current;
+        synchronized (snapshots) {
+            current = snapshots.get(userId);
+        }
+        if (current == null || investments.isEmpty()) {
+            return;
+        }
+        // Merge outside the lock; the rows carry their user, and with it the base currency
+        PortfolioColumns next = current.withAppended(investments,
+                toBaseCurrency(investments.get(0).getUser().getBaseCurrency()));
+        synchronized (snapshots) {
+            if (snapshots.get(userId) == current) {
+                snapshots.put(userId, next);
+                usedBytes += next.estimatedBytes() - current.estimatedBytes();
+                evictColdUsers(userId);
+            } else {
+                // Another write replaced or dropped the snapshot meanwhile; let the next read reload it
+                PortfolioColumns removed = snapshots.remove(userId);
+                if (removed != null) {
+                    usedBytes -= removed.estimatedBytes();
+                }
+            }
+        }
+    }
+
+    public void invalidate(Long userId) {
+        versions.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+        synchronized (snapshots) {
+            PortfolioColumns removed = snapshots.remove(userId);
+            if (removed != null) {
+                usedBytes -= removed.estimatedBytes();
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInvestmentsChanged(InvestmentsChangedEvent event) {
+        if (event.getAppended() != null) {
+            append(event.getUserId(), event.getAppended());
+        } else {
+            invalidate(event.getUserId());
+        }
+    }
+
+    @EventListener
+    public void onRatesUpdated(FxRatesUpdatedEvent event) {
+        // Bump every known version first, so loads that are already running are not cached either
+        versions.values().forEach(AtomicLong::incrementAndGet);
+        synchronized (snapshots) {
+            snapshots.clear();
+            usedBytes = 0;
+        }
+    }
+
+    public long getUsedBytes() {
+        synchronized (snapshots) {
+            return usedBytes;
+        }
+    }
+
+    // Caller holds the lock. The snapshot just loaded is kept even if it alone exceeds the budget.
+    private void evictColdUsers(Long keep) {
+        Iterator<Map.Entry<Long, PortfolioColumns>> it = snapshots.entrySet().iterator();
+        while (usedBytes > maxBytes && it.hasNext()) {
+            Map.Entry<Long, PortfolioColumns> coldest = it.next();
+            if (!coldest.getKey().equals(keep)) {
+                usedBytes -= coldest.getValue().estimatedBytes();
+                it.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package io.cealus.invest_track.repository;
+
+import io.cealus.invest_track.entity.InvestmentArchiveSegment;
+import io.cealus.invest_track.entity.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface InvestmentArchiveSegmentRepository extends JpaRepository<InvestmentArchiveSegment, Long> {
+
+    List<InvestmentArchiveSegment> findByUserOrderByFromDateAsc(User user);
+
+    @Query("SELECT s FROM InvestmentArchiveSegment s WHERE s.user = :user "
+            + "AND s.fromDate <= :endDate AND s.toDate >= :startDate ORDER BY s.fromDate")
+    List<InvestmentArchiveSegment> findOverlapping(@Param("user") User user,
+                                                   @Param("startDate") LocalDate startDate,
+                                                   @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT COALESCE(SUM(s.rowCount), 0) FROM InvestmentArchiveSegment s WHERE s.user = :user")
+    long getArchivedCount(@Param("user") User user);
+
+    List<InvestmentArchiveSegment> findByUserAndCurrencyNotOrderByFromDateAsc(User user, String currency);
+
+    @Query("SELECT SUM(s.totalAmount) FROM InvestmentArchiveSegment s WHERE s.user = :user AND s.currency = :currency")
+    Optional<BigDecimal> getArchivedTotalAmount(@Param("user") User user, @Param("currency") String currency);
+
+    @Query("SELECT s.latestTimestamp AS latestTimestamp, s.latestDate AS latestDate FROM InvestmentArchiveSegment s "
+            + "WHERE s.user = :user ORDER BY s.latestTimestamp DESC LIMIT 1")
+    Optional<LatestEntry> findLatestArchivedEntry(@Param("user") User user);
+
+    /** Timestamp and date of the most recently entered archived row, without loading the payload. */
+    interface LatestEntry {
+        LocalDateTime getLatestTimestamp();
+        LocalDate getLatestDate();
+    }
+
+    @Modifying
+    @Query("DELETE FROM InvestmentArchiveSegment s WHERE s.user = :user")
+    void deleteByUser(@Param("user") User user);
+}
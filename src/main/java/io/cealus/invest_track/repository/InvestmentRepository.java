@@ -2,37 +2,82 @@ package io.cealus.invest_track.repository;
 
 import io.cealus.invest_track.entity.Investment;
 import io.cealus.invest_track.entity.User; // Import User
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface InvestmentRepository extends JpaRepository<Investment, Long> {
-    
+
+    // Entity queries are not query-cached: the cache would hold only ids, and every id evicted
+    // from the investments region would then be loaded one statement at a time
     List<Investment> findByUserOrderByTimestampDesc(User user);
     
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "investment-queries")
+    })
     @Query("SELECT SUM(i.amount) FROM Investment i WHERE i.user = :user")
     Optional<BigDecimal> getTotalAmount(@Param("user") User user);
     
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "investment-queries")
+    })
     @Query("SELECT AVG(i.amount) FROM Investment i WHERE i.user = :user")
     Optional<BigDecimal> getAverageAmount(@Param("user") User user);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "investment-queries")
+    })
+    @Query("SELECT i.currency, i.date, SUM(i.amount) FROM Investment i WHERE i.user = :user GROUP BY i.currency, i.date")
+    List<Object[]> getTotalAmountByCurrencyAndDate(@Param("user") User user);
     
     @Query("SELECT i FROM Investment i WHERE i.user = :user ORDER BY i.timestamp DESC LIMIT 1")
     Optional<Investment> findLatestInvestment(@Param("user") User user);
     
+    List<Investment> findByUserOrderByDateAscIdAsc(User user);
+
+    // For the archive job: FOR UPDATE holds back edits between encoding the rows and deleting them
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Investment> findByUserAndDateBeforeOrderByDateAscIdAsc(User user, LocalDate cutoff);
+
+    @Query("SELECT DISTINCT i.user.id FROM Investment i WHERE i.date < :cutoff")
+    List<Long> findUserIdsWithInvestmentsBefore(@Param("cutoff") LocalDate cutoff);
+
     List<Investment> findByUserAndDateBetween(User user, LocalDate startDate, LocalDate endDate);
     
     List<Investment> findByUserAndNameContainingIgnoreCase(User user, String name);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "investment-queries")
+    })
     long countByUser(User user);
 
-    @Modifying
-    void deleteByUser(User user);
+    // Bulk delete: Hibernate evicts the investments cache region and invalidates cached queries on the table
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Investment i WHERE i.user = :user")
+    void deleteByUser(@Param("user") User user);
+
+    @Query("SELECT i.id FROM Investment i WHERE i.user = :user AND i.id IN :ids")
+    List<Long> findIdsOwnedBy(@Param("user") User user, @Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Investment i WHERE i.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
 }
\ No newline at end of file
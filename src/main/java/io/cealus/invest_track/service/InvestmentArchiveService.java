@@ -0,0 +1,233 @@
+package io.cealus.invest_track.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.cealus.invest_track.cache.SecondLevelCache;
+import io.cealus.invest_track.dto.InvestmentDTO;
+import io.cealus.invest_track.encoding.ColumnarInvestmentDecoder;
+import io.cealus.invest_track.encoding.ColumnarInvestmentEncoder;
+import io.cealus.invest_track.entity.Investment;
+import io.cealus.invest_track.entity.InvestmentArchiveSegment;
+import io.cealus.invest_track.entity.User;
+import io.cealus.invest_track.repository.InvestmentArchiveSegmentRepository;
+import io.cealus.invest_track.repository.InvestmentRepository;
+import io.cealus.invest_track.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moves investments older than the archive horizon out of the hot table into per-user
+ * compressed segments, and reads them back when callers ask for archived data.
+ * Archived rows are read-only: they keep their ids and are listed with {@code archived = true},
+ * but updates and deletes by id are rejected. Deleting all of a user's investments removes them.
+ */
+@Service
+@Transactional
+public class InvestmentArchiveService {
+
+    @Autowired
+    private InvestmentRepository investmentRepository;
+
+    @Autowired
+    private InvestmentArchiveSegmentRepository segmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SecondLevelCache secondLevelCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${investment.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${investment.archive.horizon-days:730}")
+    private int horizonDays;
+
+    @Value("${investment.archive.max-rows-per-segment:5000}")
+    private int maxRowsPerSegment;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Scheduled(cron = "${investment.archive.cron:0 0 3 * * *}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void archiveAll() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate cutoff = LocalDate.now().minusDays(horizonDays);
+        // One transaction per user, so a failure leaves that user's rows hot and the rest continue
+        TransactionTemplate perUser = new TransactionTemplate(transactionManager);
+        for (Long userId : investmentRepository.findUserIdsWithInvestmentsBefore(cutoff)) {
+            perUser.executeWithoutResult(status ->
+                    userRepository.findById(userId).ifPresent(user -> archiveUser(user, cutoff)));
+        }
+    }
+
+    private void archiveUser(User user, LocalDate cutoff) {
+        List<Investment> rows = investmentRepository.findByUserAndDateBeforeOrderByDateAscIdAsc(user, cutoff);
+        if (rows.isEmpty()) {
+            return;
+        }
+        // Segments are single-currency so their totals can be summed without decoding
+        Map<String, List<Investment>> byCurrency = rows.stream()
+                .collect(Collectors.groupingBy(Investment::getCurrency, LinkedHashMap::new, Collectors.toList()));
+        for (List<Investment> currencyRows : byCurrency.values()) {
+            for (int from = 0; from < currencyRows.size(); from += maxRowsPerSegment) {
+                List<Investment> chunk = currencyRows.subList(from, Math.min(currencyRows.size(), from + maxRowsPerSegment));
+                segmentRepository.save(toSegment(user, chunk));
+                investmentRepository.deleteByIdIn(chunk.stream().map(Investment::getId).collect(Collectors.toList()));
+            }
+        }
+        secondLevelCache.evictAllInvestmentsAfterCommit();
+        eventPublisher.publishEvent(new InvestmentsChangedEvent(user.getId()));
+    }
+
+    private InvestmentArchiveSegment toSegment(User user, List<Investment> chunk) {
+        InvestmentArchiveSegment segment = new InvestmentArchiveSegment();
+        segment.setUser(user);
+        segment.setFromDate(chunk.get(0).getDate());
+        segment.setToDate(chunk.get(chunk.size() - 1).getDate());
+        segment.setRowCount(chunk.size());
+        segment.setTotalAmount(chunk.stream().map(Investment::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add));
+        segment.setCurrency(chunk.get(0).getCurrency());
+        Investment latest = chunk.stream().max(Comparator.comparing(Investment::getTimestamp)).get();
+        segment.setLatestTimestamp(latest.getTimestamp());
+        segment.setLatestDate(latest.getDate());
+        segment.setPayload(encode(chunk.stream().map(InvestmentDTO::new).collect(Collectors.toList())));
+        return segment;
+    }
+
+    // --- Aggregates, answered from segment metadata only ---
+
+    public long getArchivedCount(User user) {
+        return segmentRepository.getArchivedCount(user);
+    }
+
+    public BigDecimal getArchivedTotalAmount(User user, String currency) {
+        return segmentRepository.getArchivedTotalAmount(user, currency).orElse(BigDecimal.ZERO);
+    }
+
+    public Optional<InvestmentArchiveSegmentRepository.LatestEntry> getLatestArchivedEntry(User user) {
+        return segmentRepository.findLatestArchivedEntry(user);
+    }
+
+    // --- Archived rows, decompressed on demand ---
+
+    public List<InvestmentDTO> getArchivedInvestments(User user) {
+        List<InvestmentDTO> investments = new ArrayList<>();
+        for (InvestmentArchiveSegment segment : segmentRepository.findByUserOrderByFromDateAsc(user)) {
+            investments.addAll(decode(segment.getPayload()));
+        }
+        return investments;
+    }
+
+    /** Archived rows dated within [startDate, endDate]; only segments overlapping the range are decoded. */
+    public List<InvestmentDTO> getArchivedInvestments(User user, LocalDate startDate, LocalDate endDate) {
+        List<InvestmentDTO> investments = new ArrayList<>();
+        for (InvestmentArchiveSegment segment : segmentRepository.findOverlapping(user, startDate, endDate)) {
+            for (InvestmentDTO dto : decode(segment.getPayload())) {
+                if (!dto.getDate().isBefore(startDate) && !dto.getDate().isAfter(endDate)) {
+                    investments.add(dto);
+                }
+            }
+        }
+        return investments;
+    }
+
+    /** Rows of the segments held in any currency other than {@code currency}. */
+    public List<InvestmentDTO> getArchivedInvestmentsNotIn(User user, String currency) {
+        List<InvestmentDTO> investments = new ArrayList<>();
+        for (InvestmentArchiveSegment segment : segmentRepository.findByUserAndCurrencyNotOrderByFromDateAsc(user, currency)) {
+            investments.addAll(decode(segment.getPayload()));
+        }
+        return investments;
+    }
+
+    /** Archived rows as detached entities, for in-memory consumers that work on {@link Investment}. */
+    public List<Investment> getArchivedRows(User user) {
+        List<Investment> rows = new ArrayList<>();
+        for (InvestmentDTO dto : getArchivedInvestments(user)) {
+            Investment investment = dto.toEntity();
+            // Keep the stored amount rather than recomputing it from quantity and price
+            investment.setAmount(dto.getAmount());
+            investment.setUser(user);
+            rows.add(investment);
+        }
+        return rows;
+    }
+
+    /**
+     * The subset of {@code ids} held in the user's archive. Decodes every segment of the user, so
+     * it is meant for ids already known to be missing from the hot table.
+     */
+    public Set<Long> findArchivedIds(User user, Collection<Long> ids) {
+        Set<Long> archived = new HashSet<>();
+        for (InvestmentArchiveSegment segment : segmentRepository.findByUserOrderByFromDateAsc(user)) {
+            for (InvestmentDTO dto : decode(segment.getPayload())) {
+                if (ids.contains(dto.getId())) {
+                    archived.add(dto.getId());
+                }
+            }
+        }
+        return archived;
+    }
+
+    public void deleteArchive(User user) {
+        segmentRepository.deleteByUser(user);
+    }
+
+    private byte[] encode(List<InvestmentDTO> investments) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(gzip)) {
+            // Segments are the only copy of the rows, so timestamps keep the database's precision
+            ColumnarInvestmentEncoder.write(investments, generator, ColumnarInvestmentEncoder.MICROSECONDS);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not encode archive segment", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private List<InvestmentDTO> decode(byte[] payload) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            List<InvestmentDTO> investments = ColumnarInvestmentDecoder.read(objectMapper.readTree(in));
+            investments.forEach(dto -> dto.setArchived(true));
+            return investments;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not decode archive segment", e);
+        }
+    }
+}
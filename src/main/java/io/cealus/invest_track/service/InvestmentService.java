@@ -1,31 +1,98 @@
 package io.cealus.invest_track.service;
 
+import io.cealus.invest_track.cache.SecondLevelCache;
+import io.cealus.invest_track.dto.BatchOperationDTO;
+import io.cealus.invest_track.dto.BatchResultDTO;
 import io.cealus.invest_track.dto.InvestmentDTO;
 import io.cealus.invest_track.entity.Investment;
 import io.cealus.invest_track.entity.User; 
+import io.cealus.invest_track.fx.CurrencyConversionService;
+import io.cealus.invest_track.fx.FxRateStore;
+import io.cealus.invest_track.portfolio.PortfolioColumns;
+import io.cealus.invest_track.portfolio.PortfolioStore;
+import io.cealus.invest_track.repository.InvestmentArchiveSegmentRepository;
 import io.cealus.invest_track.repository.InvestmentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Types;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class InvestmentService {
+
+    private static final int MAX_BATCH_OPERATIONS = 1000;
+
+    public static final String ARCHIVED_ERROR = "Archived investments are read-only";
+
+    // COALESCE keeps the current value for fields the patch leaves out
+    private static final String PATCH_SQL = "UPDATE investments SET "
+            + "name = COALESCE(?, name), date = COALESCE(?, date), category = COALESCE(?, category), "
+            + "symbol = COALESCE(?, symbol), quantity = COALESCE(?, quantity), "
+            + "purchase_price = COALESCE(?, purchase_price), amount = COALESCE(?, amount), notes = COALESCE(?, notes), "
+            + "currency = COALESCE(?, currency) WHERE id = ? AND user_id = ?";
+
+    // RETURNING reports which rows this statement removed, so each delete gets its own outcome
+    private static final String DELETE_SQL_PREFIX = "DELETE FROM investments WHERE user_id = ? AND id IN (";
     
     @Autowired
     private InvestmentRepository investmentRepository;
+
+    // Only present when investment.group-commit.enabled=true
+    @Autowired(required = false)
+    private InvestmentWriteBatcher writeBatcher;
+
+    @Autowired
+    private PortfolioStore portfolioStore;
+
+    @Autowired
+    private InvestmentArchiveService archiveService;
+
+    @Autowired
+    private SecondLevelCache secondLevelCache;
+
+    @Autowired
+    private CurrencyConversionService conversionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
     
     public List<InvestmentDTO> getAllInvestments(User user) {
-        return investmentRepository.findByUserOrderByTimestampDesc(user)
+        return getAllInvestments(user, false);
+    }
+
+    public List<InvestmentDTO> getAllInvestments(User user, boolean includeArchived) {
+        List<InvestmentDTO> investments = investmentRepository.findByUserOrderByTimestampDesc(user)
                 .stream().map(InvestmentDTO::new).collect(Collectors.toList());
+        if (includeArchived) {
+            investments.addAll(archiveService.getArchivedInvestments(user));
+            investments.sort(Comparator.comparing(InvestmentDTO::getTimestamp).reversed());
+        }
+        return conversionService.withBaseAmounts(investments, user);
     }
     
     public Optional<InvestmentDTO> getInvestmentById(Long id, User user) {
@@ -34,6 +101,9 @@ public class InvestmentService {
                 .map(InvestmentDTO::new);
     }
 
+    // No surrounding transaction: the repository save commits on its own, and in group-commit
+    // mode the caller must not hold a pooled connection while it waits for the writer thread.
+    @Transactional(propagation = Propagation.SUPPORTS)
     public InvestmentDTO createInvestment(InvestmentDTO investmentDTO, User user) {
         if (investmentDTO.getAmount() == null || investmentDTO.getAmount().compareTo(BigDecimal.ZERO) == 0) {
             throw new IllegalArgumentException("Amount must be greater than 0");
@@ -48,12 +118,19 @@ public class InvestmentService {
         }
 
         Investment investment = investmentDTO.toEntity();
+        investment.setCurrency(conversionService.checkCurrency(investmentDTO.getCurrency()));
         investment.setUser(user);
         // If timestamp is not provided in DTO, it will be set by the Investment entity's constructor
         if (investmentDTO.getTimestamp() != null) {
             investment.setTimestamp(investmentDTO.getTimestamp());
         }
+        if (writeBatcher != null) {
+            investment.setId(writeBatcher.insert(investment));
+            publishAppend(user, List.of(investment));
+            return new InvestmentDTO(investment);
+        }
         Investment savedInvestment = investmentRepository.save(investment);
+        publishAppend(user, List.of(savedInvestment));
         return new InvestmentDTO(savedInvestment);
     }
 
@@ -70,6 +147,7 @@ public class InvestmentService {
                 throw new IllegalArgumentException("Investment date is required for: " + dto.getName());
             }
             Investment investment = dto.toEntity();
+            investment.setCurrency(conversionService.checkCurrency(dto.getCurrency()));
             investment.setUser(user);
             if (dto.getTimestamp() != null) {
                 investment.setTimestamp(dto.getTimestamp());
@@ -80,6 +158,7 @@ public class InvestmentService {
         }).collect(Collectors.toList());
         
         List<Investment> savedInvestments = investmentRepository.saveAll(investmentsToSave);
+        publishAppend(user, savedInvestments);
         return savedInvestments.stream().map(InvestmentDTO::new).collect(Collectors.toList());
     }
     
@@ -89,11 +168,15 @@ public class InvestmentService {
                     existingInvestment.setDate(investmentDTO.getDate());
                     existingInvestment.setAmount(investmentDTO.getAmount());
                     existingInvestment.setName(investmentDTO.getName());
+                    if (investmentDTO.getCurrency() != null) {
+                        existingInvestment.setCurrency(conversionService.checkCurrency(investmentDTO.getCurrency()));
+                    }
                     // Optionally update timestamp if provided, otherwise keep existing
                     if (investmentDTO.getTimestamp() != null) {
                         existingInvestment.setTimestamp(investmentDTO.getTimestamp());
                     }
                     Investment updatedInvestment = investmentRepository.save(existingInvestment);
+                    publishChange(existingInvestment.getUser());
                     return new InvestmentDTO(updatedInvestment);
                 });
     }
@@ -102,42 +185,270 @@ public class InvestmentService {
         Optional<Investment> investment = investmentRepository.findById(id);
         if (investment.isPresent() && investment.get().getUser().equals(user)) {
             investmentRepository.deleteById(id);
+            publishChange(user);
             return true;
         }
         return false;
     }
     
+    /** Whether {@code id} is one of the user's archived, read-only rows. */
+    @Transactional(readOnly = true)
+    public boolean isArchived(Long id, User user) {
+        return archiveService.findArchivedIds(user, Set.of(id)).contains(id);
+    }
+
     public void deleteAllInvestments(User user) {
         investmentRepository.deleteByUser(user);
+        archiveService.deleteArchive(user);
+        secondLevelCache.evictAllInvestmentsAfterCommit();
+        publishChange(user);
     }
 
+    /**
+     * Applies patch and delete operations in one transaction: one query checks ownership of the
+     * whole set, patches go out as a single JDBC batch and deletes as one bulk statement.
+     * Invalid or foreign ids are reported per entry and do not stop the rest of the batch.
+     */
+    public List<BatchResultDTO> applyBatch(List<BatchOperationDTO> operations, User user) {
+        if (operations.size() > MAX_BATCH_OPERATIONS) {
+            throw new IllegalArgumentException("A batch can contain at most " + MAX_BATCH_OPERATIONS + " operations");
+        }
+
+        BatchResultDTO[] results = new BatchResultDTO[operations.size()];
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < operations.size(); i++) {
+            String error = validateBatchOperation(operations.get(i), seen);
+            if (error != null) {
+                results[i] = new BatchResultDTO(operations.get(i).getId(), operations.get(i).getOp(), BatchResultDTO.INVALID, error);
+            }
+        }
+
+        Set<Long> owned = seen.isEmpty() ? Set.of() : new HashSet<>(investmentRepository.findIdsOwnedBy(user, seen));
+        Set<Long> missing = new HashSet<>(seen);
+        missing.removeAll(owned);
+        Set<Long> archived = missing.isEmpty() ? Set.of() : archiveService.findArchivedIds(user, missing);
+        List<BatchOperationDTO> patches = new ArrayList<>();
+        List<Integer> patchPositions = new ArrayList<>();
+        List<Long> deletes = new ArrayList<>();
+        List<Integer> deletePositions = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            BatchOperationDTO operation = operations.get(i);
+            if (results[i] != null) {
+                continue;
+            }
+            if (archived.contains(operation.getId())) {
+                results[i] = new BatchResultDTO(operation.getId(), operation.getOp(), BatchResultDTO.ARCHIVED, ARCHIVED_ERROR);
+            } else if (!owned.contains(operation.getId())) {
+                results[i] = new BatchResultDTO(operation.getId(), operation.getOp(), BatchResultDTO.NOT_FOUND, null);
+            } else if (BatchOperationDTO.DELETE.equals(operation.getOp())) {
+                deletes.add(operation.getId());
+                deletePositions.add(i);
+                results[i] = new BatchResultDTO(operation.getId(), operation.getOp(), BatchResultDTO.DELETED, null);
+            } else {
+                patches.add(operation);
+                patchPositions.add(i);
+                results[i] = new BatchResultDTO(operation.getId(), operation.getOp(), BatchResultDTO.UPDATED, null);
+            }
+        }
+
+        if (!patches.isEmpty()) {
+            int[][] updateCounts = jdbcTemplate.batchUpdate(PATCH_SQL, patches, patches.size(), (ps, patch) -> {
+                BigDecimal amount = patchedAmount(patch);
+                ps.setObject(1, patch.getName(), Types.VARCHAR);
+                ps.setObject(2, patch.getDate() != null ? Date.valueOf(patch.getDate()) : null, Types.DATE);
+                ps.setObject(3, patch.getCategory(), Types.VARCHAR);
+                ps.setObject(4, patch.getSymbol(), Types.VARCHAR);
+                ps.setObject(5, patch.getQuantity(), Types.NUMERIC);
+                ps.setObject(6, patch.getPurchasePrice(), Types.NUMERIC);
+                ps.setObject(7, amount, Types.NUMERIC);
+                ps.setObject(8, patch.getNotes(), Types.VARCHAR);
+                ps.setObject(9, patch.getCurrency() != null ? FxRateStore.normalize(patch.getCurrency()) : null, Types.VARCHAR);
+                ps.setLong(10, patch.getId());
+                ps.setLong(11, user.getId());
+            });
+            // A row deleted since the ownership check updates nothing
+            int p = 0;
+            for (int[] chunk : updateCounts) {
+                for (int count : chunk) {
+                    if (count == 0) {
+                        BatchOperationDTO patch = patches.get(p);
+                        results[patchPositions.get(p)] = new BatchResultDTO(patch.getId(), patch.getOp(), BatchResultDTO.NOT_FOUND, null);
+                    }
+                    p++;
+                }
+            }
+        }
+        if (!deletes.isEmpty()) {
+            Object[] args = new Object[deletes.size() + 1];
+            args[0] = user.getId();
+            for (int d = 0; d < deletes.size(); d++) {
+                args[d + 1] = deletes.get(d);
+            }
+            String sql = DELETE_SQL_PREFIX + String.join(", ", Collections.nCopies(deletes.size(), "?")) + ") RETURNING id";
+            Set<Long> deleted = new HashSet<>(jdbcTemplate.queryForList(sql, Long.class, args));
+            // A row another request deleted since the ownership check was not deleted by this one
+            for (int d = 0; d < deletes.size(); d++) {
+                if (!deleted.contains(deletes.get(d))) {
+                    results[deletePositions.get(d)] = new BatchResultDTO(deletes.get(d), BatchOperationDTO.DELETE, BatchResultDTO.NOT_FOUND, null);
+                }
+            }
+        }
+
+        if (!patches.isEmpty() || !deletes.isEmpty()) {
+            List<Long> changed = new ArrayList<>(deletes);
+            patches.forEach(patch -> changed.add(patch.getId()));
+            // The JDBC updates bypass Hibernate, so cached copies are evicted once the new values are visible
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    secondLevelCache.evictInvestments(changed);
+                }
+            });
+            publishChange(user);
+        }
+        return List.of(results);
+    }
+
+    private String validateBatchOperation(BatchOperationDTO operation, Set<Long> seen) {
+        if (operation.getId() == null) {
+            return "Investment id is required";
+        }
+        if (!seen.add(operation.getId())) {
+            return "Duplicate operation for investment " + operation.getId();
+        }
+        if (BatchOperationDTO.DELETE.equals(operation.getOp())) {
+            return null;
+        }
+        if (!BatchOperationDTO.PATCH.equals(operation.getOp())) {
+            return "Unknown operation: " + operation.getOp();
+        }
+        if (!operation.hasChanges()) {
+            return "Patch contains no changes";
+        }
+        if (operation.getName() != null && operation.getName().trim().isEmpty()) {
+            return "Investment name cannot be empty";
+        }
+        // Quantity and price define the amount together, so changing only one would leave it stale
+        if ((operation.getQuantity() == null) != (operation.getPurchasePrice() == null)) {
+            return "Quantity and purchase price must be patched together";
+        }
+        BigDecimal amount = patchedAmount(operation);
+        if (amount != null && amount.compareTo(BigDecimal.ZERO) <= 0) {
+            return "Amount must be greater than 0";
+        }
+        if (operation.getCurrency() != null) {
+            try {
+                // Only validates; the normalized code is bound when the patch is applied
+                conversionService.checkCurrency(operation.getCurrency());
+            } catch (IllegalArgumentException e) {
+                return e.getMessage();
+            }
+        }
+        return null;
+    }
+
+    // Same rule as InvestmentDTO.toEntity: quantity and price together define the amount
+    private static BigDecimal patchedAmount(BatchOperationDTO patch) {
+        return patch.getQuantity() != null && patch.getPurchasePrice() != null
+                ? patch.getQuantity().multiply(patch.getPurchasePrice())
+                : patch.getAmount();
+    }
+
+    // Listeners run after commit, or immediately when there is no transaction
+    private void publishChange(User user) {
+        eventPublisher.publishEvent(new InvestmentsChangedEvent(user.getId()));
+    }
+
+    // Inserts only: in-memory snapshots add the rows instead of reloading the portfolio
+    private void publishAppend(User user, List<Investment> investments) {
+        eventPublisher.publishEvent(InvestmentsChangedEvent.appended(user.getId(), investments));
+    }
+
+    // Stats always include archived rows and are expressed in the user's base currency
     public BigDecimal getTotalAmount(User user) {
-        return investmentRepository.getTotalAmount(user).orElse(BigDecimal.ZERO);
+        return conversionService.getTotalAmount(user);
     }
     
     public BigDecimal getAverageAmount(User user) {
-        return investmentRepository.getAverageAmount(user).orElse(BigDecimal.ZERO);
+        long totalCount = getTotalCount(user);
+        if (totalCount == 0) {
+            return BigDecimal.ZERO;
+        }
+        return getTotalAmount(user).divide(BigDecimal.valueOf(totalCount), 16, RoundingMode.HALF_UP);
     }
 
     public long getTotalCount(User user) {
-        return investmentRepository.countByUser(user);
+        return investmentRepository.countByUser(user) + archiveService.getArchivedCount(user);
     }
     
+    // Date of the most recently entered row by timestamp, whether it is still hot or archived
     public Optional<LocalDate> getLatestInvestmentDate(User user) {
-        return investmentRepository.findLatestInvestment(user).map(Investment::getDate);
+        Optional<Investment> hot = investmentRepository.findLatestInvestment(user);
+        Optional<InvestmentArchiveSegmentRepository.LatestEntry> archived = archiveService.getLatestArchivedEntry(user);
+        if (archived.isPresent()
+                && (hot.isEmpty() || archived.get().getLatestTimestamp().isAfter(hot.get().getTimestamp()))) {
+            return Optional.of(archived.get().getLatestDate());
+        }
+        return hot.map(Investment::getDate);
     }
 
     public List<InvestmentDTO> getInvestmentsByDateRange(User user, LocalDate startDate, LocalDate endDate) {
-        return investmentRepository.findByUserAndDateBetween(user, startDate, endDate)
+        return getInvestmentsByDateRange(user, startDate, endDate, false);
+    }
+
+    public List<InvestmentDTO> getInvestmentsByDateRange(User user, LocalDate startDate, LocalDate endDate, boolean includeArchived) {
+        List<InvestmentDTO> investments = investmentRepository.findByUserAndDateBetween(user, startDate, endDate)
                 .stream()
                 .map(InvestmentDTO::new)
                 .collect(Collectors.toList());
+        if (includeArchived) {
+            investments.addAll(archiveService.getArchivedInvestments(user, startDate, endDate));
+        }
+        return conversionService.withBaseAmounts(investments, user);
     }
     
+    public List<InvestmentDTO> getInvestmentsForExport(User user, boolean includeArchived) {
+        List<InvestmentDTO> investments = investmentRepository.findByUserOrderByDateAscIdAsc(user)
+                .stream()
+                .map(InvestmentDTO::new)
+                .collect(Collectors.toList());
+        if (includeArchived) {
+            investments.addAll(archiveService.getArchivedInvestments(user));
+            investments.sort(Comparator.comparing(InvestmentDTO::getDate).thenComparing(InvestmentDTO::getId));
+        }
+        return conversionService.withBaseAmounts(investments, user);
+    }
+
     public List<InvestmentDTO> searchInvestmentsByName(User user, String name) {
-        return investmentRepository.findByUserAndNameContainingIgnoreCase(user, name)
+        return searchInvestmentsByName(user, name, false);
+    }
+
+    public List<InvestmentDTO> searchInvestmentsByName(User user, String name, boolean includeArchived) {
+        List<InvestmentDTO> investments = investmentRepository.findByUserAndNameContainingIgnoreCase(user, name)
                 .stream()
                 .map(InvestmentDTO::new)
                 .collect(Collectors.toList());
+        if (includeArchived) {
+            String needle = name.toLowerCase();
+            archiveService.getArchivedInvestments(user).stream()
+                    .filter(dto -> dto.getName() != null && dto.getName().toLowerCase().contains(needle))
+                    .forEach(investments::add);
+        }
+        return conversionService.withBaseAmounts(investments, user);
+    }
+
+    public Map<String, Object> getPortfolioBreakdown(User user, LocalDate startDate, LocalDate endDate) {
+        PortfolioColumns columns = portfolioStore.get(user);
+        int from = columns.lowerBound(PortfolioColumns.toEpochDay(startDate, Integer.MIN_VALUE));
+        int to = columns.upperBound(PortfolioColumns.toEpochDay(endDate, Integer.MAX_VALUE));
+        if (to < from) {
+            to = from;
+        }
+        Map<String, Object> breakdown = new HashMap<>();
+        breakdown.put("totalAmount", PortfolioColumns.amountOf(columns.sumAmounts(from, to)));
+        breakdown.put("totalCount", to - from);
+        breakdown.put("byCategory", columns.amountsByCategory(from, to));
+        breakdown.put("bySymbol", columns.amountsBySymbol(from, to));
+        return breakdown;
     }
 }
\ No newline at end of file
@@ -0,0 +1,268 @@
+package io.cealus.invest_track.service;
+
+import io.cealus.invest_track.cache.SecondLevelCache;
+import io.cealus.invest_track.entity.Investment;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Group-commit write path for single investment inserts.
+ *
+ * Concurrent callers enqueue their row and block on a future. A single writer thread
+ * drains the queue until either the batch size or the time window is reached, then
+ * inserts the whole group with one multi-row INSERT ... RETURNING id and one commit.
+ * A caller's future only completes after that commit, so durability is unchanged. A row still
+ * queued after {@code investment.group-commit.timeout-ms} is withdrawn and its caller fails; a row
+ * the writer has already taken is waited for, since it commits either way.
+ * If the group insert fails, every row is retried in its own transaction so that
+ * one bad row fails only its own caller.
+ */
+@Component
+@ConditionalOnProperty(name = "investment.group-commit.enabled", havingValue = "true")
+public class InvestmentWriteBatcher {
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO investments (name, date, category, symbol, quantity, purchase_price, notes, amount, currency, timestamp, user_id) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int COLUMNS_PER_ROW = 11;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SecondLevelCache secondLevelCache;
+
+    @Value("${investment.group-commit.max-batch-size:256}")
+    private int maxBatchSize;
+
+    @Value("${investment.group-commit.window-ms:5}")
+    private long windowMs;
+
+    @Value("${investment.group-commit.timeout-ms:10000}")
+    private long timeoutMs;
+
+    private final BlockingQueue<PendingInsert> queue = new LinkedBlockingQueue<>();
+    // Guards running together with enqueueing, so nothing is queued after stop() has drained
+    private final Object lifecycle = new Object();
+    private TransactionTemplate transactionTemplate;
+    private Thread writer;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        running = true;
+        writer = new Thread(this::drainLoop, "investment-group-commit");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        synchronized (lifecycle) {
+            running = false;
+        }
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+        List<PendingInsert> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (remaining.isEmpty()) {
+            return;
+        }
+        if (writer.isAlive()) {
+            // The writer is stuck mid-commit; committing beside it could reorder rows
+            fail(remaining, new IllegalStateException("Group commit writer did not stop in time"));
+        } else {
+            // Anything still queued after shutdown is committed on the caller's behalf
+            commitGroup(remaining);
+        }
+    }
+
+    /**
+     * Queues an already validated investment for the next group commit and waits for it.
+     * Returns the generated id once the row is committed. An error means the row was not inserted.
+     */
+    public Long insert(Investment investment) {
+        PendingInsert pending = new PendingInsert(investment);
+        synchronized (lifecycle) {
+            if (!running) {
+                throw new IllegalStateException("Group commit writer is not running");
+            }
+            queue.add(pending);
+        }
+        try {
+            try {
+                return pending.result.get(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (queue.remove(pending)) {
+                    throw new IllegalStateException("Timed out after " + timeoutMs + " ms waiting for group commit", e);
+                }
+                // The writer already owns the row; reporting a failure now would invite a duplicate retry
+                return pending.result.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Group commit failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for group commit", e);
+        }
+    }
+
+    private void drainLoop() {
+        List<PendingInsert> group = new ArrayList<>(maxBatchSize);
+        try {
+            while (running) {
+                try {
+                    PendingInsert first = queue.take();
+                    group.add(first);
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(windowMs);
+                    while (group.size() < maxBatchSize) {
+                        long remainingNanos = deadline - System.nanoTime();
+                        if (remainingNanos <= 0) {
+                            queue.drainTo(group, maxBatchSize - group.size());
+                            break;
+                        }
+                        PendingInsert next = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+                        if (next == null) {
+                            break;
+                        }
+                        group.add(next);
+                    }
+                    commitGroup(group);
+                    group.clear();
+                } catch (InterruptedException e) {
+                    // Commit first: with the interrupt flag set, borrowing a pooled connection fails
+                    if (!group.isEmpty()) {
+                        commitGroup(group);
+                        group.clear();
+                    }
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        } catch (Throwable fatal) {
+            // commitGroup handles RuntimeExceptions, so this is an Error: stop accepting work and
+            // release every waiting caller instead of leaving them blocked on a dead writer
+            synchronized (lifecycle) {
+                running = false;
+            }
+            queue.drainTo(group);
+            fail(group, fatal);
+            throw fatal;
+        }
+    }
+
+    private static void fail(List<PendingInsert> pending, Throwable cause) {
+        for (PendingInsert insert : pending) {
+            insert.result.completeExceptionally(cause);
+        }
+    }
+
+    private void commitGroup(List<PendingInsert> group) {
+        // A pending interrupt (shutdown) would make the connection pool refuse; restore it afterwards
+        boolean interrupted = Thread.interrupted();
+        try {
+            commitGroupUninterrupted(group);
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void commitGroupUninterrupted(List<PendingInsert> group) {
+        Object[] outcomes = new Object[group.size()];
+        try {
+            List<Long> ids = transactionTemplate.execute(status -> insertRows(group));
+            for (int i = 0; i < outcomes.length; i++) {
+                outcomes[i] = ids.get(i);
+            }
+        } catch (RuntimeException groupFailure) {
+            // Isolate the failure: each row gets its own transaction and its own outcome
+            for (int i = 0; i < outcomes.length; i++) {
+                PendingInsert pending = group.get(i);
+                try {
+                    outcomes[i] = transactionTemplate.execute(status -> insertRows(List.of(pending))).get(0);
+                } catch (RuntimeException rowFailure) {
+                    outcomes[i] = rowFailure;
+                }
+            }
+        }
+
+        // Plain JDBC inserts are invisible to Hibernate's query cache invalidation,
+        // so evict before any caller can read again
+        secondLevelCache.evictQueries(SecondLevelCache.INVESTMENT_QUERIES_REGION);
+        for (int i = 0; i < outcomes.length; i++) {
+            if (outcomes[i] instanceof RuntimeException failure) {
+                group.get(i).result.completeExceptionally(failure);
+            } else {
+                group.get(i).result.complete((Long) outcomes[i]);
+            }
+        }
+    }
+
+    private List<Long> insertRows(List<PendingInsert> rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows.size() * (ROW_PLACEHOLDERS.length() + 2) + 16);
+        sql.append(INSERT_PREFIX);
+        Object[] args = new Object[rows.size() * COLUMNS_PER_ROW];
+        int p = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+            Investment investment = rows.get(i).investment;
+            args[p++] = investment.getName();
+            args[p++] = Date.valueOf(investment.getDate());
+            args[p++] = investment.getCategory();
+            args[p++] = investment.getSymbol();
+            args[p++] = investment.getQuantity();
+            args[p++] = investment.getPurchasePrice();
+            args[p++] = investment.getNotes();
+            args[p++] = investment.getAmount();
+            args[p++] = investment.getCurrency();
+            args[p++] = Timestamp.valueOf(investment.getTimestamp());
+            args[p++] = investment.getUser().getId();
+        }
+        // PostgreSQL returns the generated keys in VALUES order
+        sql.append(" RETURNING id");
+        List<Long> ids = jdbcTemplate.queryForList(sql.toString(), Long.class, args);
+        if (ids.size() != rows.size()) {
+            throw new IllegalStateException("Expected " + rows.size() + " generated ids but got " + ids.size());
+        }
+        return ids;
+    }
+
+    private static final class PendingInsert {
+        private final Investment investment;
+        private final CompletableFuture<Long> result = new CompletableFuture<>();
+
+        private PendingInsert(Investment investment) {
+            this.investment = investment;
+        }
+    }
+}
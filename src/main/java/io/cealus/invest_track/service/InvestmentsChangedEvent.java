@@ -0,0 +1,43 @@
+package io.cealus.invest_track.service;
+
+import io.cealus.invest_track.entity.Investment;
+
+import java.util.List;
+
+/**
+ * Published by {@link InvestmentService} whenever a user's investments are written.
+ * Listeners holding derived per-user state use it to drop that state after the commit.
+ * Remote events are re-published for writes made on another node and are not forwarded again.
+ * When the write only inserted rows, they are attached so listeners can add them instead.
+ */
+public class InvestmentsChangedEvent {
+
+    private final Long userId;
+    private final boolean remote;
+    private final List<Investment> appended;
+
+    public InvestmentsChangedEvent(Long userId) {
+        this(userId, false);
+    }
+
+    public InvestmentsChangedEvent(Long userId, boolean remote) {
+        this(userId, remote, null);
+    }
+
+    private InvestmentsChangedEvent(Long userId, boolean remote, List<Investment> appended) {
+        this.userId = userId;
+        this.remote = remote;
+        this.appended = appended;
+    }
+
+    /** For writes that did nothing but insert {@code investments}. */
+    public static InvestmentsChangedEvent appended(Long userId, List<Investment> investments) {
+        return new InvestmentsChangedEvent(userId, false, List.copyOf(investments));
+    }
+
+    public Long getUserId() { return userId; }
+    public boolean isRemote() { return remote; }
+
+    /** The inserted rows, or null if the write changed or removed existing rows. */
+    public List<Investment> getAppended() { return appended; }
+}
@@ -0,0 +1,54 @@
+package io.cealus.invest_track.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReturnKernelsTest {
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    void xirrOfKnownTenPercent() {
+        // 1000 a year before and 1000 today, worth 1000 * 1.1^2 + 1000 * 1.1 after two years
+        int[] days = {0, 365, 730};
+        double[] flows = {-1000, -1000, 2310};
+        assertEquals(0.1, ReturnKernels.xirr(days, flows, 3), EPSILON);
+    }
+
+    @Test
+    void xirrAwayFromStartingGuess() {
+        int[] days = {0, 730};
+        double[] flows = {-1000, 1500};
+        assertEquals(Math.sqrt(1.5) - 1, ReturnKernels.xirr(days, flows, 2), EPSILON);
+    }
+
+    @Test
+    void xirrOfTotalLoss() {
+        int[] days = {0, 200, 365};
+        double[] flows = {-1000, -500, 0};
+        assertEquals(-1.0, ReturnKernels.xirr(days, flows, 3), EPSILON);
+    }
+
+    @Test
+    void xirrIsUndefinedWhenAllFlowsShareOneDay() {
+        int[] days = {19000, 19000};
+        double[] flows = {-1000, 1000};
+        assertTrue(Double.isNaN(ReturnKernels.xirr(days, flows, 2)));
+    }
+
+    @Test
+    void xirrIsUndefinedWithoutSignChange() {
+        int[] days = {0, 100, 365};
+        double[] flows = {-1000, -500, -200};
+        assertTrue(Double.isNaN(ReturnKernels.xirr(days, flows, 3)));
+    }
+
+    @Test
+    void xirrIgnoresUnusedTailOfScratchArrays() {
+        int[] days = {0, 365, 9999};
+        double[] flows = {-1000, 1100, 123456};
+        assertEquals(0.1, ReturnKernels.xirr(days, flows, 2), EPSILON);
+    }
+}
@@ -0,0 +1,124 @@
+package io.cealus.invest_track.benchmark;
+
+import io.cealus.invest_track.dto.InvestmentDTO;
+import io.cealus.invest_track.entity.Investment;
+import io.cealus.invest_track.entity.User;
+import io.cealus.invest_track.repository.InvestmentRepository;
+import io.cealus.invest_track.repository.UserRepository;
+import io.cealus.invest_track.service.InvestmentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares commits/sec of the one-transaction-per-create path against the group-commit path.
+ * Needs the PostgreSQL instance from docker-compose. Run with:
+ * mvn test -Dtest=GroupCommitBenchmark -Dbenchmark=true
+ */
+@SpringBootTest(properties = {
+        "investment.group-commit.enabled=true",
+        "spring.jpa.show-sql=false"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class GroupCommitBenchmark {
+
+    private static final int THREADS = 32;
+    private static final int INSERTS_PER_THREAD = 200;
+
+    @Autowired
+    private InvestmentService investmentService;
+    @Autowired
+    private InvestmentRepository investmentRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void createUser() {
+        User benchmarkUser = new User();
+        benchmarkUser.setUsername("group-commit-bench-" + System.nanoTime());
+        benchmarkUser.setPassword("n/a");
+        user = userRepository.save(benchmarkUser);
+    }
+
+    @AfterEach
+    void removeUser() {
+        investmentService.deleteAllInvestments(user);
+        userRepository.delete(user);
+    }
+
+    @Test
+    void commitsPerSecond() throws Exception {
+        run("one commit per create", dto -> {
+            Investment investment = dto.toEntity();
+            investment.setUser(user);
+            investmentRepository.save(investment);
+        });
+        run("group commit", dto -> investmentService.createInvestment(dto, user));
+        assertEquals(2L * THREADS * INSERTS_PER_THREAD, investmentService.getTotalCount(user));
+    }
+
+    private void run(String label, Consumer<InvestmentDTO> create) throws Exception {
+        long commitsBefore = databaseCommits();
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < INSERTS_PER_THREAD; i++) {
+                        create.accept(sampleInvestment(i));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        long commits = databaseCommits() - commitsBefore;
+        int inserts = THREADS * INSERTS_PER_THREAD;
+        System.out.printf("%-22s inserts=%d (%.0f/s) commits=%d (%.0f/s)%n",
+                label, inserts, inserts / seconds, commits, commits / seconds);
+    }
+
+    // Counter is only refreshed by the stats collector, so treat it as approximate
+    private long databaseCommits() {
+        jdbcTemplate.execute("SELECT pg_stat_clear_snapshot()");
+        Long commits = jdbcTemplate.queryForObject(
+                "SELECT xact_commit FROM pg_stat_database WHERE datname = current_database()", Long.class);
+        return commits != null ? commits : 0L;
+    }
+
+    private static InvestmentDTO sampleInvestment(int i) {
+        InvestmentDTO dto = new InvestmentDTO();
+        dto.setName("Bench " + i);
+        dto.setDate(LocalDate.now());
+        dto.setCategory("Stocks");
+        dto.setSymbol("BNCH");
+        dto.setQuantity(BigDecimal.ONE);
+        dto.setPurchasePrice(BigDecimal.valueOf(100 + i % 10));
+        dto.setAmount(BigDecimal.valueOf(100 + i % 10));
+        return dto;
+    }
+}
@@ -0,0 +1,138 @@
+package io.cealus.invest_track.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.cealus.invest_track.dto.InvestmentDTO;
+import io.cealus.invest_track.encoding.ColumnarInvestmentEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encode time for the investment list formats; payload sizes (raw and gzipped) are printed in setup.
+ * Run after test-compile with:
+ * java -cp target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)
+ *   io.cealus.invest_track.benchmark.InvestmentEncodingBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvestmentEncodingBenchmark {
+
+    private static final String[] CATEGORIES = {"Stocks", "Crypto", "ETF", "Bonds", "Real Estate"};
+    private static final String[] SYMBOLS = {"AAPL", "MSFT", "BTC", "ETH", "VWCE", "SPY", "TLT", "NVDA"};
+    private static final String[] CURRENCIES = {"USD", "EUR", "GBP"};
+
+    @Param({"100", "5000"})
+    private int rows;
+
+    private List<InvestmentDTO> investments;
+    private ObjectMapper json;
+    private ObjectMapper smile;
+    private ObjectMapper cbor;
+    private JsonFactory columnarFactory;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Same modules and @JsonFormat handling as the application's mappers
+        json = JsonMapper.builder().addModule(new JavaTimeModule()).build();
+        smile = new ObjectMapper(new SmileFactory()).registerModule(new JavaTimeModule());
+        cbor = new ObjectMapper(new CBORFactory()).registerModule(new JavaTimeModule());
+        columnarFactory = new JsonFactory();
+
+        SplittableRandom random = new SplittableRandom(7);
+        investments = new ArrayList<>(rows);
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < rows; i++) {
+            InvestmentDTO dto = new InvestmentDTO();
+            dto.setId((long) i + 1);
+            String symbol = SYMBOLS[random.nextInt(SYMBOLS.length)];
+            dto.setName(symbol + " purchase");
+            dto.setDate(start.plusDays(random.nextInt(2000)));
+            dto.setTimestamp(LocalDateTime.of(dto.getDate(), LocalTime.NOON));
+            dto.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            dto.setSymbol(symbol);
+            dto.setCurrency(CURRENCIES[random.nextInt(CURRENCIES.length)]);
+            BigDecimal quantity = BigDecimal.valueOf(random.nextInt(1, 100_000), 3).setScale(8);
+            BigDecimal price = BigDecimal.valueOf(random.nextInt(100, 5_000_000), 2).setScale(8);
+            dto.setQuantity(quantity);
+            dto.setPurchasePrice(price);
+            dto.setAmount(quantity.multiply(price).setScale(4, RoundingMode.HALF_UP));
+            investments.add(dto);
+        }
+
+        System.out.printf("%n[%d rows] json=%d/%d smile=%d/%d cbor=%d/%d columnar=%d/%d bytes (raw/gzip)%n", rows,
+                json().length, gzip(json()), smile().length, gzip(smile()),
+                cbor().length, gzip(cbor()), columnar().length, gzip(columnar()));
+    }
+
+    @Benchmark
+    public byte[] json() throws IOException {
+        return json.writeValueAsBytes(investments);
+    }
+
+    @Benchmark
+    public byte[] smile() throws IOException {
+        return smile.writeValueAsBytes(investments);
+    }
+
+    @Benchmark
+    public byte[] cbor() throws IOException {
+        return cbor.writeValueAsBytes(investments);
+    }
+
+    @Benchmark
+    public byte[] columnar() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(rows * 64);
+        try (JsonGenerator generator = columnarFactory.createGenerator(out)) {
+            ColumnarInvestmentEncoder.write(investments, generator);
+        }
+        return out.toByteArray();
+    }
+
+    private static int gzip(byte[] payload) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(payload);
+        }
+        return out.size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(InvestmentEncodingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
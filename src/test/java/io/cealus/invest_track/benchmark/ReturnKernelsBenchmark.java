@@ -0,0 +1,88 @@
+package io.cealus.invest_track.benchmark;
+
+import io.cealus.invest_track.analytics.ReturnKernels;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the XIRR and time-weighted return kernels.
+ * Run after test-compile with:
+ * java -cp target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)
+ *   io.cealus.invest_track.benchmark.ReturnKernelsBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReturnKernelsBenchmark {
+
+    @Param({"12", "120", "1200"})
+    private int flows;
+
+    private int[] days;
+    private double[] amounts;
+    private double[] valueBefore;
+    private double[] valueAfter;
+    private double endValue;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        int start = Math.toIntExact(LocalDate.of(2015, 1, 1).toEpochDay());
+        days = new int[flows + 1];
+        amounts = new double[flows + 1];
+        valueBefore = new double[flows];
+        valueAfter = new double[flows];
+
+        // Monthly purchases into a position drifting up ~7% a year with noise
+        double value = 0;
+        for (int i = 0; i < flows; i++) {
+            days[i] = start + i * 30;
+            double contribution = 100 + random.nextInt(900);
+            if (i > 0) {
+                value *= 1 + 0.0057 + (random.nextDouble() - 0.5) * 0.04;
+            }
+            valueBefore[i] = value;
+            value += contribution;
+            valueAfter[i] = value;
+            amounts[i] = -contribution;
+        }
+        endValue = value * 1.005;
+        days[flows] = start + flows * 30;
+        amounts[flows] = endValue;
+    }
+
+    @Benchmark
+    public double xirr() {
+        return ReturnKernels.xirr(days, amounts, flows + 1);
+    }
+
+    @Benchmark
+    public double timeWeightedReturn() {
+        return ReturnKernels.timeWeightedReturn(valueBefore, valueAfter, flows, endValue);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ReturnKernelsBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,60 @@
+package io.cealus.invest_track.controller;
+
+import io.cealus.invest_track.entity.User;
+import io.cealus.invest_track.querycount.QueryCountIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** SQL statement budgets for /api/auth, which runs without the JWT filter's user lookup. */
+class AuthControllerQueryCountTest extends QueryCountIntegrationTest {
+
+    @Test
+    void register() throws Exception {
+        String username = "query-count-" + System.nanoTime();
+        // Availability check and the insert
+        assertMaxStatements("POST /api/auth/register", 2, () ->
+                mockMvc.perform(post("/api/auth/register")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(credentials(username, PASSWORD)))
+                        .andExpect(status().isOk()));
+        userRepository.findByUsername(username).ifPresent(this::track);
+    }
+
+    @Test
+    void registerTakenUsername() throws Exception {
+        User user = createUser();
+        assertMaxStatements("POST /api/auth/register (taken)", 1, () ->
+                mockMvc.perform(post("/api/auth/register")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(credentials(user.getUsername(), PASSWORD)))
+                        .andExpect(status().isBadRequest()));
+    }
+
+    @Test
+    void login() throws Exception {
+        User user = createUser();
+        // Authentication loads the user; loading it again for the token is a cache hit
+        assertMaxStatements("POST /api/auth/login", 1, () ->
+                mockMvc.perform(post("/api/auth/login")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(credentials(user.getUsername(), PASSWORD)))
+                        .andExpect(status().isOk()));
+    }
+
+    @Test
+    void loginWrongPassword() throws Exception {
+        User user = createUser();
+        assertMaxStatements("POST /api/auth/login (wrong password)", 1, () ->
+                mockMvc.perform(post("/api/auth/login")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(credentials(user.getUsername(), "wrong")))
+                        .andExpect(status().isUnauthorized()));
+    }
+
+    private static String credentials(String username, String password) {
+        return "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}";
+    }
+}
@@ -0,0 +1,171 @@
+package io.cealus.invest_track.controller;
+
+import io.cealus.invest_track.entity.Investment;
+import io.cealus.invest_track.entity.User;
+import io.cealus.invest_track.querycount.QueryCountIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statement budgets for /api/investments. Budgets are {@link #USER_LOOKUPS} plus the
+ * statements the endpoint itself needs. Reads must not depend on the number of rows; writes
+ * that insert rows cost one statement per inserted row and say so in their budget.
+ */
+class InvestmentControllerQueryCountTest extends QueryCountIntegrationTest {
+
+    private static final int ROWS = 5;
+
+    // Identity ids rule out JDBC insert batching
+    private static final int INSERTS_PER_ROW = 1;
+
+    private User user;
+    private String token;
+    private List<Investment> investments;
+
+    @BeforeEach
+    void createPortfolio() {
+        user = createUser();
+        token = bearer(user);
+        investments = createInvestments(user, ROWS);
+    }
+
+    @Test
+    void listInvestments() throws Exception {
+        assertMaxStatements("GET /api/investments", USER_LOOKUPS + 1, () ->
+                mockMvc.perform(get("/api/investments").header("Authorization", token))
+                        .andExpect(status().isOk()));
+        // Archived rows come from one segment query
+        assertMaxStatements("GET /api/investments?includeArchived=true", USER_LOOKUPS + 2, () ->
+                mockMvc.perform(get("/api/investments").param("includeArchived", "true").header("Authorization", token))
+                        .andExpect(status().isOk()));
+    }
+
+    @Test
+    void listDoesNotLoadUserPerRow() throws Exception {
+        List<String> few = recordStatements(() ->
+                mockMvc.perform(get("/api/investments").header("Authorization", token)).andExpect(status().isOk()));
+        createInvestments(user, 20);
+        List<String> many = recordStatements(() ->
+                mockMvc.perform(get("/api/investments").header("Authorization", token)).andExpect(status().isOk()));
+        assertEquals(few.size(), many.size(), () -> "Statement count grew with rows:\n  " + String.join("\n  ", many));
+    }
+
+    @Test
+    void getInvestmentById() throws Exception {
+        // The ownership check must compare against the already loaded user, not fetch it again
+        assertMaxStatements("GET /api/investments/{id}", USER_LOOKUPS + 1, () ->
+                mockMvc.perform(get("/api/investments/{id}", investments.get(0).getId()).header("Authorization", token))
+                        .andExpect(status().isOk()));
+    }
+
+    @Test
+    void createInvestment() throws Exception {
+        assertMaxStatements("POST /api/investments", USER_LOOKUPS + 1, () ->
+                mockMvc.perform(post("/api/investments").header("Authorization", token)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"name\":\"New\",\"date\":\"2024-06-01\",\"amount\":250}"))
+                        .andExpect(status().isCreated()));
+    }
+
+    @Test
+    void importInvestments() throws Exception {
+        int importedRows = 3;
+        assertMaxStatements("POST /api/investments/import", USER_LOOKUPS + importedRows * INSERTS_PER_ROW, () ->
+                mockMvc.perform(post("/api/investments/import").header("Authorization", token)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("[{\"name\":\"A\",\"date\":\"2024-06-01\",\"amount\":10},"
+                                        + "{\"name\":\"B\",\"date\":\"2024-06-02\",\"amount\":20},"
+                                        + "{\"name\":\"C\",\"date\":\"2024-06-03\",\"amount\":30}]"))
+                        .andExpect(status().isCreated()));
+    }
+
+    @Test
+    void updateInvestment() throws Exception {
+        // Load and update; this endpoint does not resolve the user in the controller
+        assertMaxStatements("PUT /api/investments/{id}", USER_LOOKUPS + 2, () ->
+                mockMvc.perform(put("/api/investments/{id}", investments.get(0).getId()).header("Authorization", token)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"name\":\"Renamed\",\"date\":\"2024-01-01\",\"amount\":125}"))
+                        .andExpect(status().isOk()));
+    }
+
+    @Test
+    void deleteInvestment() throws Exception {
+        // Must not initialise the user's cascading investments collection
+        assertMaxStatements("DELETE /api/investments/{id}", USER_LOOKUPS + 2, () ->
+                mockMvc.perform(delete("/api/investments/{id}", investments.get(0).getId()).header("Authorization", token))
+                        .andExpect(status().isNoContent()));
+    }
+
+    @Test
+    void deleteAllInvestments() throws Exception {
+        // Bulk deletes of hot rows and archive segments, independent of the row count
+        assertMaxStatements("DELETE /api/investments", USER_LOOKUPS + 2, () ->
+                mockMvc.perform(delete("/api/investments").header("Authorization", token))
+                        .andExpect(status().isNoContent()));
+    }
+
+    @Test
+    void stats() throws Exception {
+        // Total: hot sums by currency and day, archived base-currency total, foreign-currency segments.
+        // Average: hot and archived counts. totalCount: archived count again (the hot count is
+        // query-cached). Latest date: newest hot row and newest segment.
+        assertMaxStatements("GET /api/investments/stats", USER_LOOKUPS + 8, () ->
+                mockMvc.perform(get("/api/investments/stats").header("Authorization", token))
+                        .andExpect(status().isOk()));
+    }
+
+    @Test
+    void breakdown() throws Exception {
+        assertMaxStatements("GET /api/investments/breakdown", USER_LOOKUPS + 2, () ->
+                mockMvc.perform(get("/api/investments/breakdown").header("Authorization", token))
+                        .andExpect(status().isOk()));
+    }
+
+    @Test
+    void export() throws Exception {
+        assertMaxStatements("GET /api/investments/export", USER_LOOKUPS + 1, () ->
+                mockMvc.perform(get("/api/investments/export").header("Authorization", token))
+                        .andExpect(status().isOk()));
+    }
+
+    @Test
+    void search() throws Exception {
+        assertMaxStatements("GET /api/investments/search", USER_LOOKUPS + 1, () ->
+                mockMvc.perform(get("/api/investments/search").param("name", "Investment").header("Authorization", token))
+                        .andExpect(status().isOk()));
+    }
+
+    @Test
+    void dateRange() throws Exception {
+        assertMaxStatements("GET /api/investments/date-range", USER_LOOKUPS + 1, () ->
+                mockMvc.perform(get("/api/investments/date-range")
+                                .param("startDate", "2024-01-01").param("endDate", "2024-12-31")
+                                .header("Authorization", token))
+                        .andExpect(status().isOk()));
+    }
+
+    @Test
+    void batch() throws Exception {
+        // One ownership query, one JDBC batch for all patches and one bulk delete
+        String body = "[{\"op\":\"patch\",\"id\":" + investments.get(0).getId() + ",\"name\":\"P1\"},"
+                + "{\"op\":\"patch\",\"id\":" + investments.get(1).getId() + ",\"amount\":42},"
+                + "{\"op\":\"delete\",\"id\":" + investments.get(2).getId() + "},"
+                + "{\"op\":\"delete\",\"id\":" + investments.get(3).getId() + "}]";
+        assertMaxStatements("POST /api/investments/batch", USER_LOOKUPS + 3, () ->
+                mockMvc.perform(post("/api/investments/batch").header("Authorization", token)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body))
+                        .andExpect(status().isOk()));
+    }
+}
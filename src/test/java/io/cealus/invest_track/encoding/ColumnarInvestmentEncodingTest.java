@@ -0,0 +1,116 @@
+package io.cealus.invest_track.encoding;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.cealus.invest_track.dto.InvestmentDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ColumnarInvestmentEncodingTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void roundTripKeepsEveryField() throws IOException {
+        List<InvestmentDTO> original = List.of(
+                investment(1L, "Apple", LocalDateTime.of(2024, 3, 4, 3, 4, 5, 123_456_000), "EUR"),
+                // Before the epoch, so the fraction must not be applied to the wrong second
+                investment(2L, "Old bond", LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_000), "USD"),
+                sparse(3L));
+
+        List<InvestmentDTO> decoded = roundTrip(original, ColumnarInvestmentEncoder.MICROSECONDS);
+
+        assertEquals(original.size(), decoded.size());
+        for (int i = 0; i < original.size(); i++) {
+            InvestmentDTO expected = original.get(i);
+            InvestmentDTO actual = decoded.get(i);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getDate(), actual.getDate());
+            assertDecimal(expected.getAmount(), actual.getAmount());
+            assertEquals(expected.getTimestamp(), actual.getTimestamp());
+            assertEquals(expected.getCategory(), actual.getCategory());
+            assertEquals(expected.getSymbol(), actual.getSymbol());
+            assertDecimal(expected.getQuantity(), actual.getQuantity());
+            assertDecimal(expected.getPurchasePrice(), actual.getPurchasePrice());
+            assertEquals(expected.getNotes(), actual.getNotes());
+            assertEquals(expected.getCurrency(), actual.getCurrency());
+            assertDecimal(expected.getBaseAmount(), actual.getBaseAmount());
+            assertEquals(expected.isArchived(), actual.isArchived());
+        }
+    }
+
+    @Test
+    void defaultScaleWritesWholeSeconds() throws IOException {
+        LocalDateTime timestamp = LocalDateTime.of(2024, 3, 4, 3, 4, 5, 123_456_789);
+        List<InvestmentDTO> decoded = roundTrip(List.of(investment(1L, "Apple", timestamp, "USD")), ColumnarInvestmentEncoder.SECONDS);
+        assertEquals(timestamp.withNano(0), decoded.get(0).getTimestamp());
+    }
+
+    @Test
+    void payloadWithoutTimestampScaleIsReadAsSeconds() throws IOException {
+        String legacy = "{\"count\":1,\"scales\":{\"amount\":4,\"quantity\":8,\"purchasePrice\":8},"
+                + "\"dictionaries\":{\"category\":[],\"symbol\":[]},"
+                + "\"columns\":{\"id\":[7],\"name\":[\"Legacy\"],\"date\":[19000],\"amount\":[10000],"
+                + "\"timestamp\":[1700000000],\"category\":[-1],\"symbol\":[-1],\"quantity\":[null],"
+                + "\"purchasePrice\":[null],\"notes\":[null]}}";
+        InvestmentDTO decoded = ColumnarInvestmentDecoder.read(objectMapper.readTree(legacy)).get(0);
+        assertEquals(LocalDateTime.of(2023, 11, 14, 22, 13, 20), decoded.getTimestamp());
+        assertEquals("USD", decoded.getCurrency());
+        assertNull(decoded.getBaseAmount());
+    }
+
+    private List<InvestmentDTO> roundTrip(List<InvestmentDTO> investments, int timestampScale) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(bytes)) {
+            ColumnarInvestmentEncoder.write(investments, generator, timestampScale);
+        }
+        return ColumnarInvestmentDecoder.read(objectMapper.readTree(bytes.toByteArray()));
+    }
+
+    private static InvestmentDTO investment(Long id, String name, LocalDateTime timestamp, String currency) {
+        InvestmentDTO dto = new InvestmentDTO();
+        dto.setId(id);
+        dto.setName(name);
+        dto.setDate(timestamp.toLocalDate());
+        dto.setAmount(new BigDecimal("1234.5678"));
+        dto.setTimestamp(timestamp);
+        dto.setCategory("Stocks");
+        dto.setSymbol("AAPL");
+        dto.setQuantity(new BigDecimal("3.12345678"));
+        dto.setPurchasePrice(new BigDecimal("395.25"));
+        dto.setNotes("Bought on a dip");
+        dto.setCurrency(currency);
+        dto.setBaseAmount(new BigDecimal("1358.0246"));
+        dto.setArchived(true);
+        return dto;
+    }
+
+    // Only the required fields; every optional column holds null
+    private static InvestmentDTO sparse(Long id) {
+        InvestmentDTO dto = new InvestmentDTO();
+        dto.setId(id);
+        dto.setName("Cash");
+        dto.setDate(LocalDate.of(2020, 1, 1));
+        dto.setAmount(new BigDecimal("10"));
+        dto.setCurrency("USD");
+        return dto;
+    }
+
+    private static void assertDecimal(BigDecimal expected, BigDecimal actual) {
+        if (expected == null) {
+            assertNull(actual);
+        } else {
+            assertEquals(0, expected.compareTo(actual), () -> "expected " + expected + " but was " + actual);
+        }
+    }
+}
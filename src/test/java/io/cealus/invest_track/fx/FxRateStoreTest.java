@@ -0,0 +1,96 @@
+package io.cealus.invest_track.fx;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FxRateStoreTest {
+
+    private static final LocalDate JAN_10 = LocalDate.of(2024, 1, 10);
+    private static final LocalDate JAN_20 = LocalDate.of(2024, 1, 20);
+
+    @TempDir
+    Path dropDir;
+
+    private FxRateStore store;
+
+    @BeforeEach
+    void loadRates() throws IOException {
+        Files.write(dropDir.resolve("rates.csv"), List.of(
+                "date,currency,rate",
+                "2024-01-10,EUR,1.10",
+                "2024-01-20,EUR,1.20",
+                "2024-01-10,GBP,1.25",
+                "2024-01-20,GBP,1.30"));
+        store = new FxRateStore();
+        ReflectionTestUtils.setField(store, "dropDir", dropDir.toString());
+        ReflectionTestUtils.setField(store, "eventPublisher", (ApplicationEventPublisher) event -> {});
+        store.scan();
+    }
+
+    @Test
+    void rateOnExactDay() {
+        FxRateStore.RateSeries series = series();
+        assertEquals(new BigDecimal("1.10"), series.at(day(JAN_10)));
+        assertEquals(new BigDecimal("1.20"), series.at(day(JAN_20)));
+    }
+
+    @Test
+    void rateBetweenTwoDaysIsTheEarlierOne() {
+        assertEquals(new BigDecimal("1.10"), series().at(day(JAN_10) + 5));
+    }
+
+    @Test
+    void rateBeforeFirstDayIsTheFirstRate() {
+        assertEquals(new BigDecimal("1.10"), series().at(day(JAN_10) - 1));
+    }
+
+    @Test
+    void rateAfterLastDayIsTheLastRate() {
+        assertEquals(new BigDecimal("1.20"), series().at(day(JAN_20) + 100));
+    }
+
+    @Test
+    void convertsBetweenTwoNonPivotCurrencies() {
+        // 100 EUR = 110 USD = 88 GBP on the 10th
+        BigDecimal converted = store.convert(new BigDecimal("100"), "EUR", "GBP", JAN_10);
+        assertEquals(0, new BigDecimal("88").compareTo(converted));
+    }
+
+    @Test
+    void convertsToAndFromPivot() {
+        assertEquals(0, new BigDecimal("120").compareTo(store.convert(new BigDecimal("100"), "EUR", "USD", JAN_20)));
+        assertEquals(0, new BigDecimal("100").compareTo(store.convert(new BigDecimal("130"), "USD", "GBP", JAN_20)));
+    }
+
+    @Test
+    void convertIsNullWithoutRates() {
+        assertNull(store.convert(new BigDecimal("100"), "JPY", "USD", JAN_10));
+        assertNull(store.convert(new BigDecimal("100"), "EUR", "JPY", JAN_10));
+        assertNull(store.rateToPivot("JPY", JAN_10));
+    }
+
+    private static FxRateStore.RateSeries series() {
+        TreeMap<Integer, BigDecimal> byDay = new TreeMap<>();
+        byDay.put(day(JAN_10), new BigDecimal("1.10"));
+        byDay.put(day(JAN_20), new BigDecimal("1.20"));
+        return FxRateStore.RateSeries.of(byDay);
+    }
+
+    private static int day(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
+    }
+}
@@ -0,0 +1,142 @@
+package io.cealus.invest_track.portfolio;
+
+import io.cealus.invest_track.entity.Investment;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PortfolioColumnsTest {
+
+    private static final LocalDate DAY_10 = LocalDate.of(2024, 1, 10);
+    private static final LocalDate DAY_20 = LocalDate.of(2024, 1, 20);
+    private static final LocalDate DAY_30 = LocalDate.of(2024, 1, 30);
+
+    // Days 10, 20, 20, 20, 30; given out of order so the snapshot has to sort them
+    private final PortfolioColumns columns = PortfolioColumns.from(List.of(
+            investment(1L, DAY_20, "2", "Stocks", "USD"),
+            investment(2L, DAY_30, "5", "ETF", "USD"),
+            investment(3L, DAY_10, "1", "Stocks", "USD"),
+            investment(4L, DAY_20, "3", "ETF", "USD"),
+            investment(5L, DAY_20, "4", null, "USD")));
+
+    @Test
+    void boundsAroundDuplicateDates() {
+        assertEquals(1, columns.lowerBound(day(DAY_20)));
+        assertEquals(4, columns.upperBound(day(DAY_20)));
+    }
+
+    @Test
+    void inclusiveRangeCoversBothEnds() {
+        int from = columns.lowerBound(day(DAY_10));
+        int to = columns.upperBound(day(DAY_20));
+        assertEquals(4, to - from);
+        assertEquals(amount("10"), PortfolioColumns.amountOf(columns.sumAmounts(from, to)));
+    }
+
+    @Test
+    void singleDayRange() {
+        int from = columns.lowerBound(day(DAY_20));
+        int to = columns.upperBound(day(DAY_20));
+        assertEquals(amount("9"), PortfolioColumns.amountOf(columns.sumAmounts(from, to)));
+    }
+
+    @Test
+    void emptyRanges() {
+        // Between two dates, before the first and after the last
+        assertEquals(columns.lowerBound(day(DAY_20) + 1), columns.upperBound(day(DAY_30) - 1));
+        assertEquals(0, columns.upperBound(day(DAY_10) - 1));
+        assertEquals(columns.size(), columns.lowerBound(day(DAY_30) + 1));
+    }
+
+    @Test
+    void openBoundsCoverEveryRow() {
+        assertEquals(0, columns.lowerBound(PortfolioColumns.toEpochDay(null, Integer.MIN_VALUE)));
+        assertEquals(columns.size(), columns.upperBound(PortfolioColumns.toEpochDay(null, Integer.MAX_VALUE)));
+    }
+
+    @Test
+    void emptySnapshot() {
+        PortfolioColumns empty = PortfolioColumns.from(List.of());
+        assertEquals(0, empty.lowerBound(day(DAY_10)));
+        assertEquals(0, empty.upperBound(day(DAY_10)));
+        assertEquals(0, empty.sumAmounts(0, 0));
+    }
+
+    @Test
+    void sumsByCategorySkipRowsWithoutOne() {
+        Map<String, BigDecimal> byCategory = columns.amountsByCategory(0, columns.size());
+        assertEquals(Map.of("Stocks", amount("3"), "ETF", amount("8")), byCategory);
+    }
+
+    @Test
+    void convertsEachRowByItsCurrency() {
+        // One EUR is two USD; rows in a currency without a rate are left out
+        PortfolioColumns converted = PortfolioColumns.from(List.of(
+                investment(1L, DAY_10, "10", "Stocks", "USD"),
+                investment(2L, DAY_20, "10", "Stocks", "EUR"),
+                investment(3L, DAY_30, "10", "Stocks", "JPY")), PortfolioColumnsTest::eurAtTwoDollars);
+        assertEquals(2, converted.size());
+        assertEquals(amount("30"), PortfolioColumns.amountOf(converted.sumAmounts(0, converted.size())));
+        assertEquals(Map.of("Stocks", amount("30")), converted.amountsByCategory(0, converted.size()));
+    }
+
+    @Test
+    void appendedRowsAreMergedByDate() {
+        PortfolioColumns appended = columns.withAppended(List.of(
+                investment(6L, DAY_20, "6", "Bonds", "USD"),
+                investment(7L, LocalDate.of(2024, 1, 1), "7", "Stocks", "USD")), (value, row) -> value);
+
+        assertEquals(7, appended.size());
+        assertEquals(7L, appended.investmentId(0));
+        // Same day as existing rows: placed after them
+        assertEquals(6L, appended.investmentId(appended.upperBound(day(DAY_20)) - 1));
+        assertEquals(amount("28"), PortfolioColumns.amountOf(appended.sumAmounts(0, appended.size())));
+        assertEquals(Map.of("Stocks", amount("10"), "ETF", amount("8"), "Bonds", amount("6")),
+                appended.amountsByCategory(0, appended.size()));
+        // The original snapshot is unchanged
+        assertEquals(5, columns.size());
+    }
+
+    @Test
+    void appendSkipsRowsAlreadyInSnapshot() {
+        PortfolioColumns appended = columns.withAppended(List.of(investment(3L, DAY_10, "1", "Stocks", "USD")),
+                (value, row) -> value);
+        assertSame(columns, appended);
+    }
+
+    private static BigDecimal eurAtTwoDollars(BigDecimal value, Investment row) {
+        if (value == null) {
+            return null;
+        }
+        return switch (row.getCurrency()) {
+            case "USD" -> value;
+            case "EUR" -> value.multiply(BigDecimal.valueOf(2));
+            default -> null;
+        };
+    }
+
+    private static Investment investment(Long id, LocalDate date, String amount, String category, String currency) {
+        Investment investment = new Investment();
+        investment.setId(id);
+        investment.setName("Investment " + id);
+        investment.setDate(date);
+        investment.setAmount(new BigDecimal(amount));
+        investment.setCategory(category);
+        investment.setCurrency(currency);
+        return investment;
+    }
+
+    private static BigDecimal amount(String value) {
+        return new BigDecimal(value).setScale(Investment.AMOUNT_SCALE);
+    }
+
+    private static int day(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
+    }
+}
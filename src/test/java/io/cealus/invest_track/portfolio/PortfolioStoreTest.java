@@ -0,0 +1,132 @@
+package io.cealus.invest_track.portfolio;
+
+import io.cealus.invest_track.entity.Investment;
+import io.cealus.invest_track.entity.User;
+import io.cealus.invest_track.fx.FxRateStore;
+import io.cealus.invest_track.repository.InvestmentRepository;
+import io.cealus.invest_track.service.InvestmentArchiveService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PortfolioStoreTest {
+
+    private static final int ROWS_PER_USER = 10;
+
+    private final InvestmentRepository investmentRepository = mock(InvestmentRepository.class);
+    private final InvestmentArchiveService archiveService = mock(InvestmentArchiveService.class);
+    private final PortfolioStore store = new PortfolioStore();
+
+    private final User alice = user(1L);
+    private final User bob = user(2L);
+    private final User carol = user(3L);
+
+    // Every user holds the same rows, so every snapshot has the same estimated size
+    private final long snapshotBytes = PortfolioColumns.from(rows(alice)).estimatedBytes();
+
+    @BeforeEach
+    void wireStore() {
+        ReflectionTestUtils.setField(store, "investmentRepository", investmentRepository);
+        ReflectionTestUtils.setField(store, "archiveService", archiveService);
+        // No rates are loaded, so only same-currency conversion is used: every row is in USD
+        ReflectionTestUtils.setField(store, "rateStore", new FxRateStore());
+        ReflectionTestUtils.setField(store, "maxBytes", snapshotBytes * 2 + snapshotBytes / 2);
+        when(investmentRepository.findByUserOrderByTimestampDesc(any()))
+                .thenAnswer(call -> rows(call.getArgument(0)));
+        when(archiveService.getArchivedRows(any())).thenReturn(List.of());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedUserOverBudget() {
+        store.get(alice);
+        store.get(bob);
+        // Alice is now more recently used than Bob
+        store.get(alice);
+        store.get(carol);
+
+        assertEquals(snapshotBytes * 2, store.getUsedBytes());
+        store.get(alice);
+        store.get(carol);
+        verify(investmentRepository, times(1)).findByUserOrderByTimestampDesc(alice);
+        verify(investmentRepository, times(1)).findByUserOrderByTimestampDesc(carol);
+        store.get(bob);
+        verify(investmentRepository, times(2)).findByUserOrderByTimestampDesc(bob);
+    }
+
+    @Test
+    void keepsSnapshotLargerThanBudget() {
+        ReflectionTestUtils.setField(store, "maxBytes", snapshotBytes / 2);
+        store.get(alice);
+        store.get(alice);
+        verify(investmentRepository, times(1)).findByUserOrderByTimestampDesc(alice);
+        assertEquals(snapshotBytes, store.getUsedBytes());
+    }
+
+    @Test
+    void uncachedLoadLeavesBudgetAlone() {
+        store.getWithoutCaching(alice);
+        assertEquals(0, store.getUsedBytes());
+    }
+
+    @Test
+    void appendUpdatesCachedSnapshotWithoutReload() {
+        PortfolioColumns before = store.get(alice);
+        long version = store.version(alice.getId());
+
+        store.append(alice.getId(), List.of(investment(alice, 100L, LocalDate.of(2024, 6, 1))));
+
+        PortfolioColumns after = store.get(alice);
+        assertEquals(before.size() + 1, after.size());
+        assertNotEquals(version, store.version(alice.getId()));
+        assertEquals(after.estimatedBytes(), store.getUsedBytes());
+        verify(investmentRepository, times(1)).findByUserOrderByTimestampDesc(alice);
+    }
+
+    @Test
+    void invalidateDropsSnapshot() {
+        store.get(alice);
+        store.invalidate(alice.getId());
+        assertEquals(0, store.getUsedBytes());
+        store.get(alice);
+        verify(investmentRepository, times(2)).findByUserOrderByTimestampDesc(alice);
+    }
+
+    private static List<Investment> rows(User user) {
+        List<Investment> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS_PER_USER; i++) {
+            rows.add(investment(user, (long) i, LocalDate.of(2024, 1, 1).plusDays(i)));
+        }
+        return rows;
+    }
+
+    private static Investment investment(User user, Long id, LocalDate date) {
+        Investment investment = new Investment();
+        investment.setId(user.getId() * 1000 + id);
+        investment.setName("Investment " + id);
+        investment.setDate(date);
+        investment.setAmount(BigDecimal.TEN);
+        investment.setCategory("Stocks");
+        investment.setUser(user);
+        return investment;
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user-" + id);
+        return user;
+    }
+}
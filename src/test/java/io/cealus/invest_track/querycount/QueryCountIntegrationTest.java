@@ -0,0 +1,141 @@
+package io.cealus.invest_track.querycount;
+
+import io.cealus.invest_track.entity.Investment;
+import io.cealus.invest_track.entity.User;
+import io.cealus.invest_track.repository.InvestmentRepository;
+import io.cealus.invest_track.repository.UserRepository;
+import io.cealus.invest_track.security.JwtUtil;
+import io.cealus.invest_track.service.InvestmentService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Base for tests that cap the number of SQL statements an endpoint issues.
+ *
+ * Every measured request starts with cold Hibernate entity and query caches, so the budgets are
+ * the worst case a request can cost. A failing assertion lists the exact statements that ran.
+ * Like the rest of the suite, this needs the PostgreSQL instance from docker-compose.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+@Import(QueryCountTestConfig.class)
+public abstract class QueryCountIntegrationTest {
+
+    public static final String PASSWORD = "query-count-password";
+
+    /**
+     * The JWT filter's lookup by name is the one miss on cold caches; the controller's lookup of
+     * the same user is then a query-cache and entity-cache hit.
+     */
+    protected static final int USER_LOOKUPS = 1;
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected SqlStatementRecorder sqlRecorder;
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @Autowired
+    protected InvestmentRepository investmentRepository;
+
+    @Autowired
+    private InvestmentService investmentService;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<User> createdUsers = new ArrayList<>();
+
+    @AfterEach
+    void deleteCreatedUsers() {
+        for (User user : createdUsers) {
+            investmentService.deleteAllInvestments(user);
+            userRepository.deleteById(user.getId());
+        }
+        createdUsers.clear();
+    }
+
+    protected User createUser() {
+        User user = new User();
+        user.setUsername("query-count-" + System.nanoTime());
+        user.setPassword(passwordEncoder.encode(PASSWORD));
+        return track(userRepository.save(user));
+    }
+
+    /** Registers a user created through the API for cleanup. */
+    protected User track(User user) {
+        createdUsers.add(user);
+        return user;
+    }
+
+    protected List<Investment> createInvestments(User user, int count) {
+        List<Investment> investments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Investment investment = new Investment();
+            investment.setName("Investment " + i);
+            investment.setDate(LocalDate.of(2024, 1, 1).plusDays(i));
+            investment.setAmount(BigDecimal.valueOf(100 + i));
+            investment.setCategory(i % 2 == 0 ? "Stocks" : "ETF");
+            investment.setSymbol(i % 2 == 0 ? "AAPL" : "VWCE");
+            investment.setUser(user);
+            investments.add(investment);
+        }
+        return investmentRepository.saveAll(investments);
+    }
+
+    protected String bearer(User user) {
+        return "Bearer " + jwtUtil.generateToken(userDetailsService.loadUserByUsername(user.getUsername()));
+    }
+
+    /** Runs {@code call} against cold caches and returns the statements it executed. */
+    protected List<String> recordStatements(MockMvcCall call) throws Exception {
+        entityManagerFactory.getCache().evictAll();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        sqlRecorder.start();
+        List<String> statements;
+        try {
+            call.run();
+        } finally {
+            statements = sqlRecorder.stop();
+        }
+        return statements;
+    }
+
+    protected void assertMaxStatements(String endpoint, int budget, MockMvcCall call) throws Exception {
+        List<String> statements = recordStatements(call);
+        assertTrue(statements.size() <= budget, () -> endpoint + " issued " + statements.size()
+                + " SQL statements, budget is " + budget + ":\n  " + String.join("\n  ", statements));
+    }
+
+    @FunctionalInterface
+    public interface MockMvcCall {
+        void run() throws Exception;
+    }
+}
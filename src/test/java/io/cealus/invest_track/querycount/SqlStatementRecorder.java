@@ -0,0 +1,52 @@
+package io.cealus.invest_track.querycount;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Records the SQL executed on the thread that called {@link #start()}, so scheduled jobs and
+ * other background work do not leak into a test's count. A JDBC batch is one execution and is
+ * recorded as one entry, matching the number of round trips to the database.
+ */
+public class SqlStatementRecorder implements QueryExecutionListener {
+
+    private final List<String> statements = new ArrayList<>();
+    private volatile Thread recordingThread;
+
+    public void start() {
+        synchronized (statements) {
+            statements.clear();
+        }
+        recordingThread = Thread.currentThread();
+    }
+
+    public List<String> stop() {
+        recordingThread = null;
+        synchronized (statements) {
+            return List.copyOf(statements);
+        }
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (Thread.currentThread() != recordingThread) {
+            return;
+        }
+        String sql = queryInfoList.stream().map(QueryInfo::getQuery).distinct().collect(Collectors.joining("; "));
+        if (execInfo.isBatch()) {
+            sql = "[batch of " + execInfo.getBatchSize() + "] " + sql;
+        }
+        synchronized (statements) {
+            statements.add(sql);
+        }
+    }
+}
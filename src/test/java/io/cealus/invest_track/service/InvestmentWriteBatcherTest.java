@@ -0,0 +1,107 @@
+package io.cealus.invest_track.service;
+
+import io.cealus.invest_track.dto.InvestmentDTO;
+import io.cealus.invest_track.entity.User;
+import io.cealus.invest_track.repository.InvestmentRepository;
+import io.cealus.invest_track.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Group commit against the PostgreSQL instance from docker-compose. The window is long enough
+ * that rows submitted together land in one group.
+ */
+@SpringBootTest(properties = {
+        "investment.group-commit.enabled=true",
+        "investment.group-commit.window-ms=500",
+        "investment.group-commit.max-batch-size=4",
+        "spring.jpa.show-sql=false"
+})
+class InvestmentWriteBatcherTest {
+
+    @Autowired
+    private InvestmentService investmentService;
+    @Autowired
+    private InvestmentRepository investmentRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void createUser() {
+        User testUser = new User();
+        testUser.setUsername("group-commit-test-" + System.nanoTime());
+        testUser.setPassword("n/a");
+        user = userRepository.save(testUser);
+    }
+
+    @AfterEach
+    void removeUser() {
+        investmentService.deleteAllInvestments(user);
+        userRepository.delete(user);
+    }
+
+    @Test
+    void badRowFailsOnlyItsOwnCaller() throws Exception {
+        // Notes are limited to 1024 characters; only the database rejects the longer value
+        List<InvestmentDTO> rows = List.of(row("Good 1", null), row("Good 2", null),
+                row("Bad", "x".repeat(2000)), row("Good 3", null));
+
+        ExecutorService executor = Executors.newFixedThreadPool(rows.size());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<InvestmentDTO>> results = new ArrayList<>();
+        try {
+            for (InvestmentDTO row : rows) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return investmentService.createInvestment(row, user);
+                }));
+            }
+            start.countDown();
+
+            for (int i = 0; i < rows.size(); i++) {
+                if (rows.get(i).getNotes() != null) {
+                    ExecutionException failure = assertThrows(ExecutionException.class, results.get(i)::get);
+                    assertInstanceOf(DataAccessException.class, failure.getCause());
+                } else {
+                    InvestmentDTO created = results.get(i).get();
+                    assertNotNull(created.getId());
+                    assertTrue(investmentRepository.existsById(created.getId()));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(3, investmentRepository.countByUser(user));
+    }
+
+    private static InvestmentDTO row(String name, String notes) {
+        InvestmentDTO dto = new InvestmentDTO();
+        dto.setName(name);
+        dto.setDate(LocalDate.of(2024, 1, 1));
+        dto.setAmount(BigDecimal.valueOf(100));
+        dto.setNotes(notes);
+        return dto;
+    }
+}